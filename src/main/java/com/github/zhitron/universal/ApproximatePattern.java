@@ -0,0 +1,303 @@
+package com.github.zhitron.universal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 预编译的近似查找模式，在长文本中查找与目标的编辑距离不超过k的位置
+ * <p>
+ * 基于Myers位并行算法，目标按code point处理，每64个code point组成一个块，超过64个时按块依次计算并在块之间传递进位，
+ * 因此每个输入字符的处理代价为O(目标长度 / 64)。编辑距离与{@link UniversalString#similarDistance(boolean, CharSequence, CharSequence, IntPredicate)}
+ * 一样以code point为单位计算，忽略大小写时按{@link Character#toLowerCase(int)}比较。
+ * 被ignored谓词忽略的code point会同时从目标和输入中去除，不参与比较。
+ * </p>
+ * <p>
+ * 该类是不可变的，并且是线程安全的。
+ * </p>
+ *
+ * <pre>
+ *   ApproximatePattern pattern = UniversalString.compileApproximate(true, "connection", null);
+ *   pattern.indexOfEnd("error: conection refused", 1) = 16
+ *   pattern.minDistance("error: conection refused")   = 1
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class ApproximatePattern {
+    /**
+     * 每个块包含的code point数量
+     */
+    private static final int BLOCK_SIZE = Long.SIZE;
+    /**
+     * 原始目标字符串
+     */
+    private final String target;
+    /**
+     * 是否忽略大小写
+     */
+    private final boolean ignoreCase;
+    /**
+     * 用于判断code point是否被忽略的谓词，为null时不忽略任何code point
+     */
+    private final IntPredicate ignored;
+    /**
+     * 去除被忽略的code point之后的目标长度
+     */
+    private final int length;
+    /**
+     * 块的数量
+     */
+    private final int blockCount;
+    /**
+     * 最后一个块中目标最后一个code point对应的位
+     */
+    private final long lastBit;
+    /**
+     * 目标中出现过的code point（已按需折叠），升序排列
+     */
+    private final int[] codePoints;
+    /**
+     * 每个code point在目标中出现位置的位掩码，下标为[code point下标 * 块数量 + 块下标]
+     */
+    private final long[] peq;
+    /**
+     * ASCII code point在codePoints中的下标，不存在时为-1
+     */
+    private final int[] asciiIndex;
+
+    /**
+     * 构造函数
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符串
+     * @param ignored    用于判断code point是否被忽略的谓词
+     * @param pattern    去除被忽略的code point并按需折叠之后的目标code point数组，不能为空
+     */
+    private ApproximatePattern(boolean ignoreCase, String target, IntPredicate ignored, int[] pattern) {
+        this.target = target;
+        this.ignoreCase = ignoreCase;
+        this.ignored = ignored;
+        this.length = pattern.length;
+        this.blockCount = (pattern.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.lastBit = 1L << ((pattern.length - 1) % BLOCK_SIZE);
+        this.codePoints = Arrays.stream(pattern).distinct().sorted().toArray();
+        this.peq = new long[codePoints.length * blockCount];
+        this.asciiIndex = new int[128];
+        Arrays.fill(this.asciiIndex, -1);
+        for (int i = 0; i < pattern.length; i++) {
+            int index = Arrays.binarySearch(codePoints, pattern[i]);
+            peq[index * blockCount + i / BLOCK_SIZE] |= 1L << (i % BLOCK_SIZE);
+        }
+        for (int i = 0; i < codePoints.length && codePoints[i] < 128; i++) {
+            asciiIndex[codePoints[i]] = i;
+        }
+    }
+
+    /**
+     * 编译目标字符序列为近似查找模式
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符序列
+     * @param ignored    用于判断code point是否被忽略的谓词，为null时不忽略任何code point
+     * @return 近似查找模式
+     * @throws IllegalArgumentException 当目标为null、为空或全部由被忽略的code point组成时抛出
+     */
+    public static ApproximatePattern of(boolean ignoreCase, CharSequence target, IntPredicate ignored) {
+        if (target == null || target.length() == 0) {
+            throw new IllegalArgumentException("Target must not be empty.");
+        }
+        int[] pattern = target.codePoints()
+                .filter(codePoint -> ignored == null || !ignored.test(codePoint))
+                .map(codePoint -> ignoreCase ? Character.toLowerCase(codePoint) : codePoint)
+                .toArray();
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Target must contain code points that are not ignored.");
+        }
+        return new ApproximatePattern(ignoreCase, target.toString(), ignored, pattern);
+    }
+
+    /**
+     * 获取目标字符串
+     *
+     * @return 目标字符串
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * 是否忽略大小写
+     *
+     * @return 忽略大小写返回true，否则返回false
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * 获取去除被忽略的code point之后的目标长度（code point数量）
+     *
+     * @return 目标长度
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 检查输入字符序列中是否存在与目标的编辑距离不超过maxDistance的子串
+     *
+     * @param input       输入字符序列
+     * @param maxDistance 允许的最大编辑距离
+     * @return 存在返回true，否则返回false
+     * @throws IllegalArgumentException 当maxDistance小于0时抛出
+     */
+    public boolean isContain(CharSequence input, int maxDistance) {
+        return this.indexOfEnd(input, maxDistance) >= 0;
+    }
+
+    /**
+     * 查找第一个与目标的编辑距离不超过maxDistance的子串的结束位置
+     *
+     * @param input       输入字符序列
+     * @param maxDistance 允许的最大编辑距离
+     * @return 子串的结束位置（不包含），未找到返回-1
+     * @throws IllegalArgumentException 当maxDistance小于0时抛出
+     */
+    public int indexOfEnd(CharSequence input, int maxDistance) {
+        int[] result = {UniversalString.NOT_FOUND};
+        this.find(input, maxDistance, (endExclusive, distance) -> {
+            result[0] = endExclusive;
+            return false;
+        });
+        return result[0];
+    }
+
+    /**
+     * 计算输入字符序列的所有子串与目标之间的最小编辑距离
+     *
+     * @param input 输入字符序列
+     * @return 最小编辑距离，输入为null或空时为目标长度
+     */
+    public int minDistance(CharSequence input) {
+        int[] result = {length};
+        this.find(input, length, (endExclusive, distance) -> {
+            result[0] = Math.min(result[0], distance);
+            return distance > 0;
+        });
+        return result[0];
+    }
+
+    /**
+     * 从左向右扫描输入字符序列，对每个与目标的编辑距离不超过maxDistance的子串结束位置回调一次
+     * <p>
+     * 结束位置按升序回调，同一个结束位置只回调一次，距离为以该位置结束的所有子串中的最小编辑距离。
+     * 被忽略的code point处不会回调。
+     * </p>
+     *
+     * @param input       输入字符序列
+     * @param maxDistance 允许的最大编辑距离
+     * @param consumer    匹配结果的回调，返回false时停止扫描
+     * @throws IllegalArgumentException 当maxDistance小于0时抛出
+     */
+    public void find(CharSequence input, int maxDistance, MatchConsumer consumer) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Max distance must not be negative.");
+        }
+        if (input == null || input.length() == 0) {
+            return;
+        }
+        // 垂直方向的正负差值向量，初始时第i行与第0行的差值为i，即全部为+1
+        long[] positive = new long[blockCount], negative = new long[blockCount];
+        Arrays.fill(positive, -1L);
+        int score = length;
+        for (int i = 0, inputLength = input.length(); i < inputLength; ) {
+            int codePoint = Character.codePointAt(input, i);
+            i += Character.charCount(codePoint);
+            if (ignored != null && ignored.test(codePoint)) {
+                continue;
+            }
+            int index = this.indexOf(ignoreCase ? Character.toLowerCase(codePoint) : codePoint);
+            // 第0行的水平差值为0，匹配可以从输入的任意位置开始
+            int carry = 0;
+            for (int block = 0; block < blockCount; block++) {
+                carry = this.advance(positive, negative, block, index < 0 ? 0L : peq[index * blockCount + block], carry);
+            }
+            score += carry;
+            if (score <= maxDistance && !consumer.accept(i, score)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按Myers算法推进一个块，计算读取一个输入字符后该块的垂直差值向量
+     *
+     * @param positive 垂直正差值向量
+     * @param negative 垂直负差值向量
+     * @param block    块下标
+     * @param equals   当前输入字符在该块中的匹配位掩码
+     * @param carryIn  从下方块传入的水平差值（-1、0或1）
+     * @return 传给上方块的水平差值（-1、0或1），最后一个块返回的是目标末尾行的得分变化
+     */
+    private int advance(long[] positive, long[] negative, int block, long equals, int carryIn) {
+        long pv = positive[block], mv = negative[block];
+        long xv = equals | mv;
+        if (carryIn < 0) {
+            equals |= 1L;
+        }
+        long xh = (((equals & pv) + pv) ^ pv) | equals;
+        long ph = mv | ~(xh | pv);
+        long mh = pv & xh;
+        long highBit = block == blockCount - 1 ? lastBit : Long.MIN_VALUE;
+        int carryOut = (ph & highBit) != 0 ? 1 : (mh & highBit) != 0 ? -1 : 0;
+        ph <<= 1;
+        mh <<= 1;
+        if (carryIn < 0) {
+            mh |= 1L;
+        } else if (carryIn > 0) {
+            ph |= 1L;
+        }
+        positive[block] = mh | ~(xv | ph);
+        negative[block] = ph & xv;
+        return carryOut;
+    }
+
+    /**
+     * 获取code point在codePoints中的下标
+     *
+     * @param codePoint code point（已按需折叠）
+     * @return 下标，不存在时返回-1
+     */
+    private int indexOf(int codePoint) {
+        if (codePoint < 128) {
+            return asciiIndex[codePoint];
+        }
+        int index = Arrays.binarySearch(codePoints, codePoint);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * 返回近似查找模式的字符串表示形式
+     *
+     * @return 近似查找模式的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "ApproximatePattern[" + target + (ignoreCase ? ", ignoreCase]" : "]");
+    }
+
+    /**
+     * 近似匹配结果的回调接口
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * 接收一个匹配结果
+         *
+         * @param endExclusive 匹配子串的结束位置（不包含）
+         * @param distance     以该位置结束的子串与目标之间的最小编辑距离
+         * @return 返回true继续扫描，返回false停止扫描
+         */
+        boolean accept(int endExclusive, int distance);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.zhitron.universal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 将ByteBuffer的一段字节视为字符序列，每个字节对应一个取值为0-255的字符，不进行解码
+ * <p>
+ * 用于在UTF-8字节上直接复用字符查找引擎。UTF-8编码是自同步的，合法UTF-8目标的字节匹配一定落在字符边界上。
+ * 只支持ASCII字母的大小写折叠，因为非ASCII字符的大小写形式可能具有不同的UTF-8字节长度。
+ * </p>
+ *
+ * @author zhitron
+ */
+final class ByteSequence implements CharSequence {
+    /**
+     * 字节缓冲区，只使用绝对位置读取，不会修改其position
+     */
+    private final ByteBuffer buffer;
+    /**
+     * 起始字节位置
+     */
+    private final int offset;
+    /**
+     * 字节长度
+     */
+    private final int length;
+    /**
+     * 是否将ASCII大写字母折叠为小写
+     */
+    private final boolean asciiLowerCase;
+
+    /**
+     * 构造函数
+     *
+     * @param buffer         字节缓冲区
+     * @param offset         起始字节位置
+     * @param length         字节长度
+     * @param asciiLowerCase 是否将ASCII大写字母折叠为小写
+     */
+    ByteSequence(ByteBuffer buffer, int offset, int length, boolean asciiLowerCase) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.asciiLowerCase = asciiLowerCase;
+    }
+
+    /**
+     * 将目标字符序列编码为UTF-8字节，并以每个字节对应一个字符的形式返回
+     *
+     * @param target         目标字符序列
+     * @param asciiLowerCase 是否将ASCII大写字母折叠为小写
+     * @return 字节形式的字符串
+     */
+    static String toByteString(CharSequence target, boolean asciiLowerCase) {
+        byte[] bytes = target.toString().getBytes(StandardCharsets.UTF_8);
+        if (asciiLowerCase) {
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) ByteSequence.toAsciiLowerCase(bytes[i] & 0xFF);
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 将ASCII大写字母转换为小写，其它字节保持不变
+     *
+     * @param value 字节值（0-255）
+     * @return 转换后的字节值
+     */
+    private static int toAsciiLowerCase(int value) {
+        return value >= 'A' && value <= 'Z' ? value + ('a' - 'A') : value;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        int value = buffer.get(offset + index) & 0xFF;
+        return (char) (asciiLowerCase ? ByteSequence.toAsciiLowerCase(value) : value);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new ByteSequence(buffer, offset + start, end - start, asciiLowerCase);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = this.charAt(i);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,386 @@
+package com.github.zhitron.universal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 不可变的code point集合，用于替代trim、clean、split等方法中的任意IntPredicate
+ * <p>
+ * ASCII部分使用两个64位掩码存储，其它code point使用升序排列的闭区间数组存储，
+ * 判断时ASCII字符只需一次位运算，其它字符使用二分查找。该类是final的，
+ * 作为参数传入对应的重载方法时，内层循环中的判断调用是单态的，可以被JIT内联，
+ * 不会像多个不同的lambda那样使调用点变为多态。该类同时实现了{@link IntPredicate}，可以用于所有接受谓词的方法。
+ * </p>
+ *
+ * <pre>
+ *   CodePointClass quotes = CodePointClass.anyOf("\"'");
+ *   CodePointClass trim   = CodePointClass.ASCII_WHITESPACE.union(quotes);
+ *   UniversalString.trim(" 'abc' ", true, true, trim) = "abc"
+ *   CodePointClass.range('0', '9').negate().test('a')  = true
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class CodePointClass implements IntPredicate {
+    /**
+     * 不包含任何code point的集合
+     */
+    public static final CodePointClass NONE = new CodePointClass(0L, 0L, new int[0]);
+    /**
+     * 包含所有code point的集合
+     */
+    public static final CodePointClass ANY = NONE.negate();
+    /**
+     * ASCII空白字符集合，与{@link UniversalString#isWhitespace(int)}一致
+     */
+    public static final CodePointClass ASCII_WHITESPACE = CodePointClass.anyOf(" \t\n\r\f");
+    /**
+     * ASCII空白字符和引号集合，与{@link UniversalString#isWhitespaceOrQuotes(int)}一致
+     */
+    public static final CodePointClass ASCII_WHITESPACE_OR_QUOTES = CodePointClass.anyOf(" \t\n\r\f\"'");
+    /**
+     * 空白字符集合，与{@link Character#isWhitespace(int)}一致
+     * <p>
+     * 直接使用闭区间创建，不在类初始化时遍历所有code point：U+0009-U+000D、U+001C-U+001F、空格、
+     * U+1680、U+2000-U+2006、U+2008-U+200A、U+2028、U+2029、U+205F和U+3000。
+     * </p>
+     */
+    public static final CodePointClass WHITESPACE = CodePointClass.fromRanges(new int[]{
+            0x0009, 0x000D, 0x001C, 0x0020, 0x1680, 0x1680, 0x2000, 0x2006,
+            0x2008, 0x200A, 0x2028, 0x2029, 0x205F, 0x205F, 0x3000, 0x3000}, 16);
+    /**
+     * ASCII范围的上限（不包含）
+     */
+    static final int ASCII_LIMIT = 128;
+    /**
+     * 0-63的掩码
+     */
+    private final long lowMask;
+    /**
+     * 64-127的掩码
+     */
+    private final long highMask;
+    /**
+     * 非ASCII部分的闭区间，格式为[起始0, 结束0, 起始1, 结束1, ...]，升序排列且互不相邻
+     */
+    private final int[] ranges;
+
+    /**
+     * 构造函数
+     *
+     * @param lowMask  0-63的掩码
+     * @param highMask 64-127的掩码
+     * @param ranges   非ASCII部分的闭区间
+     */
+    private CodePointClass(long lowMask, long highMask, int[] ranges) {
+        this.lowMask = lowMask;
+        this.highMask = highMask;
+        this.ranges = ranges;
+    }
+
+    /**
+     * 创建包含指定code point的集合
+     *
+     * @param codePoints code point数组
+     * @return code point集合
+     * @throws IllegalArgumentException 当code point无效时抛出
+     */
+    public static CodePointClass of(int... codePoints) {
+        if (codePoints == null || codePoints.length == 0) {
+            return NONE;
+        }
+        int[] sorted = codePoints.clone();
+        Arrays.sort(sorted);
+        int[] ranges = new int[sorted.length * 2];
+        int count = 0;
+        for (int codePoint : sorted) {
+            CodePointClass.checkCodePoint(codePoint);
+            if (count > 0 && codePoint <= ranges[count - 1] + 1) {
+                ranges[count - 1] = codePoint;
+            } else {
+                ranges[count++] = codePoint;
+                ranges[count++] = codePoint;
+            }
+        }
+        return CodePointClass.fromRanges(ranges, count);
+    }
+
+    /**
+     * 创建包含字符序列中所有code point的集合
+     *
+     * @param chars 字符序列
+     * @return code point集合
+     */
+    public static CodePointClass anyOf(CharSequence chars) {
+        return chars == null ? NONE : CodePointClass.of(chars.codePoints().toArray());
+    }
+
+    /**
+     * 创建包含指定闭区间内所有code point的集合
+     *
+     * @param startInclusive 起始code point（包含）
+     * @param endInclusive   结束code point（包含）
+     * @return code point集合
+     * @throws IllegalArgumentException 当code point无效或起始大于结束时抛出
+     */
+    public static CodePointClass range(int startInclusive, int endInclusive) {
+        CodePointClass.checkCodePoint(startInclusive);
+        CodePointClass.checkCodePoint(endInclusive);
+        if (startInclusive > endInclusive) {
+            throw new IllegalArgumentException("Start must not be greater than end.");
+        }
+        return CodePointClass.fromRanges(new int[]{startInclusive, endInclusive}, 2);
+    }
+
+    /**
+     * 将谓词编译为code point集合，会对所有code point调用一次谓词，适合在初始化时编译常用的谓词
+     *
+     * @param predicate 谓词
+     * @return code point集合
+     */
+    public static CodePointClass of(IntPredicate predicate) {
+        if (predicate == null) {
+            return NONE;
+        }
+        if (predicate instanceof CodePointClass) {
+            return (CodePointClass) predicate;
+        }
+        int[] ranges = new int[16];
+        int count = 0;
+        for (int codePoint = Character.MIN_CODE_POINT; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            if (!predicate.test(codePoint)) {
+                continue;
+            }
+            if (count > 0 && ranges[count - 1] == codePoint - 1) {
+                ranges[count - 1] = codePoint;
+            } else {
+                if (count == ranges.length) {
+                    ranges = Arrays.copyOf(ranges, count * 2);
+                }
+                ranges[count++] = codePoint;
+                ranges[count++] = codePoint;
+            }
+        }
+        return CodePointClass.fromRanges(ranges, count);
+    }
+
+    /**
+     * 检查code point是否有效
+     *
+     * @param codePoint code point
+     * @throws IllegalArgumentException 当code point无效时抛出
+     */
+    private static void checkCodePoint(int codePoint) {
+        if (!Character.isValidCodePoint(codePoint)) {
+            throw new IllegalArgumentException("Invalid code point: " + codePoint);
+        }
+    }
+
+    /**
+     * 根据覆盖所有code point的闭区间创建集合
+     *
+     * @param ranges 升序排列且互不相邻的闭区间
+     * @param count  闭区间数组的有效长度
+     * @return code point集合
+     */
+    private static CodePointClass fromRanges(int[] ranges, int count) {
+        long lowMask = 0L, highMask = 0L;
+        int index = 0;
+        // ASCII部分写入掩码
+        for (; index < count && ranges[index] < ASCII_LIMIT; index += 2) {
+            for (int codePoint = ranges[index], end = Math.min(ranges[index + 1], ASCII_LIMIT - 1); codePoint <= end; codePoint++) {
+                if (codePoint < Long.SIZE) {
+                    lowMask |= 1L << codePoint;
+                } else {
+                    highMask |= 1L << codePoint;
+                }
+            }
+            if (ranges[index + 1] >= ASCII_LIMIT) {
+                break;
+            }
+        }
+        // 跨越ASCII边界的区间只保留非ASCII部分
+        int[] rest = Arrays.copyOfRange(ranges, index, count);
+        if (rest.length > 0 && rest[0] < ASCII_LIMIT) {
+            rest[0] = ASCII_LIMIT;
+        }
+        return new CodePointClass(lowMask, highMask, rest);
+    }
+
+    /**
+     * 将集合转换为覆盖所有code point的闭区间
+     *
+     * @return 升序排列且互不相邻的闭区间
+     */
+    private int[] toRanges() {
+        int[] result = new int[ASCII_LIMIT + ranges.length + 2];
+        int count = 0;
+        for (int codePoint = 0; codePoint < ASCII_LIMIT; codePoint++) {
+            if (!this.test(codePoint)) {
+                continue;
+            }
+            if (count > 0 && result[count - 1] == codePoint - 1) {
+                result[count - 1] = codePoint;
+            } else {
+                result[count++] = codePoint;
+                result[count++] = codePoint;
+            }
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (count > 0 && result[count - 1] == ranges[i] - 1) {
+                result[count - 1] = ranges[i + 1];
+            } else {
+                result[count++] = ranges[i];
+                result[count++] = ranges[i + 1];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 判断code point是否在集合中
+     *
+     * @param codePoint code point
+     * @return 在集合中返回true，否则返回false
+     */
+    @Override
+    public boolean test(int codePoint) {
+        if (codePoint < Long.SIZE) {
+            return codePoint >= 0 && (lowMask & (1L << codePoint)) != 0;
+        }
+        if (codePoint < ASCII_LIMIT) {
+            return (highMask & (1L << codePoint)) != 0;
+        }
+        return ranges.length != 0 && this.inRanges(codePoint);
+    }
+
+    /**
+     * 在非ASCII区间中二分查找code point
+     *
+     * @param codePoint 非ASCII的code point
+     * @return 在某个区间中返回true，否则返回false
+     */
+    private boolean inRanges(int codePoint) {
+        int low = 0, high = (ranges.length >>> 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (codePoint < ranges[middle << 1]) {
+                high = middle - 1;
+            } else if (codePoint > ranges[(middle << 1) + 1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 返回两个集合的并集
+     *
+     * @param other 另一个集合，为null时视为空集合
+     * @return 并集
+     */
+    public CodePointClass union(CodePointClass other) {
+        if (other == null || other == NONE || other == this) {
+            return this;
+        }
+        int[] left = this.toRanges(), right = other.toRanges();
+        int[] result = new int[left.length + right.length];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length || j < right.length; ) {
+            int start, end;
+            if (j >= right.length || (i < left.length && left[i] <= right[j])) {
+                start = left[i];
+                end = left[i + 1];
+                i += 2;
+            } else {
+                start = right[j];
+                end = right[j + 1];
+                j += 2;
+            }
+            // 与前一个区间重叠或相邻时合并
+            if (count > 0 && start <= result[count - 1] + 1) {
+                result[count - 1] = Math.max(result[count - 1], end);
+            } else {
+                result[count++] = start;
+                result[count++] = end;
+            }
+        }
+        return CodePointClass.fromRanges(result, count);
+    }
+
+    /**
+     * 返回两个集合的交集
+     *
+     * @param other 另一个集合，为null时视为空集合
+     * @return 交集
+     */
+    public CodePointClass intersect(CodePointClass other) {
+        if (other == null) {
+            return NONE;
+        }
+        return this.negate().union(other.negate()).negate();
+    }
+
+    /**
+     * 返回集合的补集
+     *
+     * @return 补集
+     */
+    public CodePointClass negate() {
+        int[] source = this.toRanges();
+        int[] result = new int[source.length + 2];
+        int count = 0, next = Character.MIN_CODE_POINT;
+        for (int i = 0; i < source.length; i += 2) {
+            if (source[i] > next) {
+                result[count++] = next;
+                result[count++] = source[i] - 1;
+            }
+            next = source[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            result[count++] = next;
+            result[count++] = Character.MAX_CODE_POINT;
+        }
+        return CodePointClass.fromRanges(result, count);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CodePointClass)) {
+            return false;
+        }
+        CodePointClass that = (CodePointClass) o;
+        return lowMask == that.lowMask && highMask == that.highMask && Arrays.equals(ranges, that.ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(lowMask) + Long.hashCode(highMask)) + Arrays.hashCode(ranges);
+    }
+
+    /**
+     * 返回code point集合的字符串表示形式，格式为闭区间列表
+     *
+     * @return code point集合的字符串表示
+     */
+    @Override
+    public String toString() {
+        int[] all = this.toRanges();
+        StringBuilder sb = new StringBuilder("CodePointClass[");
+        for (int i = 0; i < all.length; i += 2) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(String.format("U+%04X", all[i]));
+            if (all[i + 1] != all[i]) {
+                sb.append('-').append(String.format("U+%04X", all[i + 1]));
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预编译的格式化模板，与{@link UniversalString#format(CharSequence, CharSequence, Object...)}的语义一致
+ * <p>
+ * 编译时一次性解析占位符位置和反斜杠转义，将模板拆分为固定文本片段，格式化时只需按顺序拼接片段和参数，
+ * 并按精确长度分配结果缓冲区。该类是不可变的，并且是线程安全的。
+ * </p>
+ *
+ * <pre>
+ *   FormatTemplate template = UniversalString.compileFormat("this is {} for {}", "{}");
+ *   template.format("a", "b") = "this is a for b"
+ *   template.format("a")      = "this is a for {}"
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class FormatTemplate {
+    /**
+     * 原始模板字符串
+     */
+    private final String template;
+    /**
+     * 占位符，参数不足时原样输出
+     */
+    private final String placeHolder;
+    /**
+     * 固定文本片段，数量比占位符数量多一个，占位符位于相邻片段之间
+     */
+    private final String[] literals;
+    /**
+     * 所有固定文本片段的总长度
+     */
+    private final int literalLength;
+
+    /**
+     * 构造函数
+     *
+     * @param template    原始模板字符串
+     * @param placeHolder 占位符
+     * @param literals    固定文本片段
+     */
+    private FormatTemplate(String template, String placeHolder, String[] literals) {
+        this.template = template;
+        this.placeHolder = placeHolder;
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译格式化模板
+     * <p>
+     * 模板或占位符为null或空时，模板中不包含任何占位符。
+     * </p>
+     *
+     * @param template    字符串模板
+     * @param placeHolder 占位符，例如{}
+     * @return 格式化模板
+     */
+    public static FormatTemplate of(CharSequence template, CharSequence placeHolder) {
+        String templateString = template == null ? UniversalString.EMPTY_STRING : template.toString();
+        if (templateString.isEmpty() || placeHolder == null || placeHolder.length() == 0) {
+            return new FormatTemplate(templateString, UniversalString.EMPTY_STRING, new String[]{templateString});
+        }
+        String placeHolderString = placeHolder.toString();
+        int templateLength = templateString.length(), placeHolderLength = placeHolderString.length();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int handledPosition = 0; // 已处理到的位置
+        while (handledPosition < templateLength) {
+            int delimIndex = UniversalString.indexOf(false, templateString, handledPosition, templateLength, placeHolderString);
+            if (delimIndex == -1) {
+                // 没有更多占位符了，剩余内容都是固定文本
+                literal.append(templateString, handledPosition, templateLength);
+                break;
+            }
+            // 统计占位符前连续的反斜杠数量
+            int slashCount = 0;
+            for (int pos = delimIndex - 1; pos > 0 && templateString.charAt(pos) == '\\'; pos--) {
+                slashCount++;
+            }
+            // 判断是否是转义
+            if (slashCount % 2 == 1) {
+                // 是转义，去掉一个反斜杠，占位符作为固定文本输出
+                literal.append(templateString, handledPosition, delimIndex - 1);
+                literal.append(placeHolderString);
+            } else {
+                // 不是转义，当前片段结束
+                literal.append(templateString, handledPosition, delimIndex - (slashCount == 0 ? 0 : slashCount - 1));
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+            handledPosition = delimIndex + placeHolderLength;
+        }
+        literals.add(literal.toString());
+        return new FormatTemplate(templateString, placeHolderString, literals.toArray(UniversalString.EMPTY_STRING_ARRAY));
+    }
+
+    /**
+     * 获取原始模板字符串
+     *
+     * @return 原始模板字符串
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取占位符
+     *
+     * @return 占位符，模板中不包含占位符时可能为空字符串
+     */
+    public String getPlaceHolder() {
+        return placeHolder;
+    }
+
+    /**
+     * 获取模板中（未被转义的）占位符的数量
+     *
+     * @return 占位符的数量
+     */
+    public int getPlaceHolderCount() {
+        return literals.length - 1;
+    }
+
+    /**
+     * 按顺序使用参数替换占位符，参数不足时保留原始占位符，多余的参数会被忽略
+     *
+     * @param args 参数列表，为null时视为没有参数
+     * @return 格式化后的字符串
+     */
+    public String format(Object... args) {
+        int count = literals.length - 1;
+        if (count == 0) {
+            return literals[0];
+        }
+        // 先将参数转换为字符串，用于计算结果的精确长度
+        int argCount = args == null ? 0 : Math.min(args.length, count);
+        String[] values = new String[argCount];
+        int length = literalLength + (count - argCount) * placeHolder.length();
+        for (int i = 0; i < argCount; i++) {
+            values[i] = String.valueOf(args[i]);
+            length += values[i].length();
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(literals[0]);
+        for (int i = 0; i < count; i++) {
+            sb.append(i < argCount ? values[i] : placeHolder).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按顺序使用参数替换占位符后追加到StringBuilder中
+     *
+     * @param output 输出
+     * @param args   参数列表，为null时视为没有参数
+     * @return 输出
+     * @see #format(Object...)
+     */
+    public StringBuilder formatTo(StringBuilder output, Object... args) {
+        try {
+            this.formatTo((Appendable) output, args);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 按顺序使用参数替换占位符后追加到输出中，不创建中间字符串
+     *
+     * @param output 输出
+     * @param args   参数列表，为null时视为没有参数
+     * @param <A>    输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #format(Object...)
+     */
+    public <A extends Appendable> A formatTo(A output, Object... args) throws IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
+        }
+        int count = literals.length - 1, argCount = args == null ? 0 : args.length;
+        output.append(literals[0]);
+        for (int i = 0; i < count; i++) {
+            output.append(i < argCount ? String.valueOf(args[i]) : placeHolder).append(literals[i + 1]);
+        }
+        return output;
+    }
+
+    /**
+     * 返回格式化模板的字符串表示形式
+     *
+     * @return 格式化模板的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "FormatTemplate[" + template + "]";
+    }
+
+    /**
+     * 格式化模板缓存的键，由模板和占位符组成，同一模板使用不同占位符时对应不同的缓存项
+     */
+    static final class CacheKey {
+        /**
+         * 模板字符串
+         */
+        final String template;
+        /**
+         * 占位符
+         */
+        final String placeHolder;
+
+        /**
+         * 构造函数
+         *
+         * @param template    模板字符串
+         * @param placeHolder 占位符
+         */
+        CacheKey(String template, String placeHolder) {
+            this.template = template;
+            this.placeHolder = placeHolder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return template.equals(other.template) && placeHolder.equals(other.placeHolder);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * template.hashCode() + placeHolder.hashCode();
+        }
+    }
+}
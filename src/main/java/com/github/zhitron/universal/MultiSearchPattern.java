@@ -0,0 +1,759 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 预编译的多目标查找模式，基于Aho-Corasick自动机在一次线性扫描中同时查找多个目标字符串
+ * <p>
+ * 匹配采用最左最长语义：从左向右扫描，优先选择起始位置最靠左的匹配，起始位置相同时选择最长的目标。
+ * 该类是不可变的，并且是线程安全的。
+ * </p>
+ * <p>
+ * 所有操作都只读取输入的每个字符一次，时间复杂度为O(n)。isContainAny、isContainAll和matchedTargets
+ * 使用正向自动机扫描；clean和replace需要确认每个匹配是否最长，使用反向目标构建的反向自动机按块从后向前扫描，
+ * 一次得到每个位置开始的最长目标，再从前向后贪心选择不重叠的匹配，不会在找到匹配后回到匹配末尾重新扫描。
+ * </p>
+ *
+ * <pre>
+ *   MultiSearchPattern pattern = UniversalString.compileMulti(false, "ab", "aba");
+ *   pattern.clean("abababc")        = "bc"
+ *   pattern.isContainAny("xxabxx")  = true
+ *   pattern.isContainAll("xxabxx")  = false
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class MultiSearchPattern {
+    /**
+     * 根状态
+     */
+    private static final int ROOT = 0;
+    /**
+     * 表示不存在的状态或目标
+     */
+    private static final int NONE = -1;
+    /**
+     * 通过{@link #of(boolean, CharSequence...)}编译的多目标查找模式数量，用于确认无需修改时的快速路径没有构建自动机
+     */
+    static final LongAdder COMPILED_COUNT = new LongAdder();
+    /**
+     * 目标字符串数组，null和空字符串已被过滤
+     */
+    private final String[] targets;
+    /**
+     * 是否忽略大小写
+     */
+    private final boolean ignoreCase;
+    /**
+     * 状态转移表
+     */
+    private final Transitions transitions;
+    /**
+     * 根状态的ASCII字符转移表，用于加速最常见的根状态转移
+     */
+    private final int[] rootAscii;
+    /**
+     * 每个状态的失配状态
+     */
+    private final int[] fail;
+    /**
+     * 每个状态对应的前缀长度
+     */
+    private final int[] depth;
+    /**
+     * 每个状态对应的目标下标，非终止状态为-1
+     */
+    private final int[] terminal;
+    /**
+     * 每个状态沿失配链可以到达的最近终止状态，不存在时为-1
+     */
+    private final int[] dictionary;
+    /**
+     * 每个目标对应的终止状态，相同的目标对应同一个终止状态
+     */
+    private final int[] targetStates;
+    /**
+     * 不同终止状态的数量，即去重后的目标数量
+     */
+    private final int terminalCount;
+    /**
+     * 最长目标的长度
+     */
+    private final int maxTargetLength;
+    /**
+     * 在UTF-8字节上查找时使用的多目标查找模式，首次使用时创建
+     */
+    private MultiSearchPattern utf8Pattern;
+    /**
+     * 由反转后的目标构建的多目标查找模式，用于查找每个位置开始的最长目标，首次使用时创建
+     */
+    private MultiSearchPattern reversedPattern;
+
+    /**
+     * 构造函数
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param targets    目标字符串数组，不包含null和空字符串
+     */
+    private MultiSearchPattern(boolean ignoreCase, String[] targets) {
+        this.targets = targets;
+        this.ignoreCase = ignoreCase;
+        int capacity = 1, maxLength = 0;
+        for (String target : targets) {
+            capacity += target.length();
+            maxLength = Math.max(maxLength, target.length());
+        }
+        this.maxTargetLength = maxLength;
+        this.transitions = new Transitions(capacity);
+        this.rootAscii = new int[128];
+        this.fail = new int[capacity];
+        this.depth = new int[capacity];
+        this.terminal = new int[capacity];
+        this.dictionary = new int[capacity];
+        this.targetStates = new int[targets.length];
+        Arrays.fill(this.rootAscii, NONE);
+        Arrays.fill(this.terminal, NONE);
+        this.terminalCount = this.build();
+    }
+
+    /**
+     * 编译多个目标字符序列为多目标查找模式，null和空字符串会被忽略
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param targets    目标字符序列数组
+     * @return 多目标查找模式
+     */
+    public static MultiSearchPattern of(boolean ignoreCase, CharSequence... targets) {
+        List<String> list = new ArrayList<>(targets == null ? 0 : targets.length);
+        if (targets != null) {
+            for (CharSequence target : targets) {
+                if (target != null && target.length() > 0) {
+                    list.add(target.toString());
+                }
+            }
+        }
+        COMPILED_COUNT.increment();
+        return new MultiSearchPattern(ignoreCase, list.toArray(UniversalString.EMPTY_STRING_ARRAY));
+    }
+
+    /**
+     * 构建Trie树、失配链以及字典后缀链
+     *
+     * @return 不同终止状态的数量
+     */
+    private int build() {
+        // 构建Trie树，同时记录每个状态的子节点，用于之后的广度优先遍历
+        int count = 1, terminals = 0;
+        int[] firstEdge = new int[fail.length], nextEdge = new int[fail.length];
+        char[] edgeValue = new char[fail.length];
+        Arrays.fill(firstEdge, NONE);
+        for (int index = 0; index < targets.length; index++) {
+            String target = targets[index];
+            int state = ROOT;
+            for (int i = 0; i < target.length(); i++) {
+                char value = this.fold(target.charAt(i));
+                int child = transitions.get(state, value);
+                if (child == NONE) {
+                    child = count++;
+                    depth[child] = depth[state] + 1;
+                    transitions.put(state, value, child);
+                    edgeValue[child] = value;
+                    nextEdge[child] = firstEdge[state];
+                    firstEdge[state] = child;
+                    if (state == ROOT && value < 128) {
+                        rootAscii[value] = child;
+                    }
+                }
+                state = child;
+            }
+            // 相同的目标只记录第一次出现的下标
+            if (terminal[state] == NONE) {
+                terminal[state] = index;
+                terminals++;
+            }
+            targetStates[index] = state;
+        }
+        // 广度优先遍历，计算失配链和字典后缀链
+        int[] queue = new int[count];
+        int head = 0, tail = 0;
+        dictionary[ROOT] = NONE;
+        for (int child = firstEdge[ROOT]; child != NONE; child = nextEdge[child]) {
+            fail[child] = ROOT;
+            dictionary[child] = NONE;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int child = firstEdge[state]; child != NONE; child = nextEdge[child]) {
+                char value = edgeValue[child];
+                int target = fail[state];
+                while (target != ROOT && transitions.get(target, value) == NONE) {
+                    target = fail[target];
+                }
+                int found = transitions.get(target, value);
+                fail[child] = found == NONE ? ROOT : found;
+                dictionary[child] = terminal[fail[child]] != NONE ? fail[child] : dictionary[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+        return terminals;
+    }
+
+    /**
+     * 获取目标字符串数组的副本
+     *
+     * @return 目标字符串数组
+     */
+    public String[] getTargets() {
+        return targets.clone();
+    }
+
+    /**
+     * 是否忽略大小写
+     *
+     * @return 忽略大小写返回true，否则返回false
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * 获取目标字符串的数量
+     *
+     * @return 目标字符串的数量
+     */
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * 检查输入字符序列是否包含任意一个目标字符串，一次扫描并在首次匹配时立即返回
+     *
+     * @param input 要检查的字符序列
+     * @return 如果包含任意一个目标字符串则返回true，否则返回false
+     */
+    public boolean isContainAny(CharSequence input) {
+        if (input == null || targets.length == 0) {
+            return false;
+        }
+        int state = ROOT;
+        for (int i = 0, inputLength = input.length(); i < inputLength; i++) {
+            state = this.next(state, this.fold(input.charAt(i)));
+            if (terminal[state] != NONE || dictionary[state] != NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查输入字符序列是否包含所有目标字符串，一次扫描并在所有目标都出现后立即返回
+     * <p>
+     * 没有任何目标字符串时返回false。
+     * </p>
+     *
+     * @param input 要检查的字符序列
+     * @return 如果包含所有目标字符串则返回true，否则返回false
+     */
+    public boolean isContainAll(CharSequence input) {
+        if (input == null || targets.length == 0) {
+            return false;
+        }
+        return this.collect(input, new boolean[fail.length], true) == terminalCount;
+    }
+
+    /**
+     * 一次扫描找出输入字符序列中出现过的所有目标字符串
+     *
+     * @param input 要检查的字符序列
+     * @return 出现过的目标字符串下标集合，下标与{@link #getTargets()}一致
+     */
+    public BitSet matchedTargets(CharSequence input) {
+        BitSet result = new BitSet(targets.length);
+        if (input == null || targets.length == 0) {
+            return result;
+        }
+        boolean[] seen = new boolean[fail.length];
+        this.collect(input, seen, false);
+        for (int index = 0; index < targets.length; index++) {
+            if (seen[targetStates[index]]) {
+                result.set(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 扫描输入字符序列，标记所有出现过的终止状态
+     *
+     * @param input       输入字符序列
+     * @param seen        用于标记终止状态是否出现过的数组
+     * @param stopWhenAll 所有终止状态都出现后是否立即停止扫描
+     * @return 出现过的不同终止状态的数量
+     */
+    private int collect(CharSequence input, boolean[] seen, boolean stopWhenAll) {
+        int state = ROOT, found = 0;
+        for (int i = 0, inputLength = input.length(); i < inputLength; i++) {
+            state = this.next(state, this.fold(input.charAt(i)));
+            // 沿字典后缀链标记终止状态，遇到已标记的状态时其后续状态必然也已标记
+            for (int output = terminal[state] != NONE ? state : dictionary[state]; output != NONE && !seen[output]; output = dictionary[output]) {
+                seen[output] = true;
+                found++;
+            }
+            if (stopWhenAll && found == terminalCount) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 检查字节缓冲区的剩余字节中是否包含任意一个目标字符串的UTF-8编码，不解码输入，也不修改缓冲区的position
+     * <p>
+     * 忽略大小写时只对ASCII字母生效。
+     * </p>
+     *
+     * @param input 以UTF-8编码的字节缓冲区，可以是堆内、直接或内存映射缓冲区
+     * @return 如果包含任意一个目标字符串则返回true，否则返回false
+     */
+    public boolean isContainAnyUtf8(ByteBuffer input) {
+        return input != null && this.utf8Pattern().isContainAny(new ByteSequence(input, input.position(), input.remaining(), ignoreCase));
+    }
+
+    /**
+     * 检查字节缓冲区的剩余字节中是否包含所有目标字符串的UTF-8编码
+     *
+     * @param input 以UTF-8编码的字节缓冲区
+     * @return 如果包含所有目标字符串则返回true，否则返回false
+     * @see #isContainAnyUtf8(ByteBuffer)
+     */
+    public boolean isContainAllUtf8(ByteBuffer input) {
+        return input != null && this.utf8Pattern().isContainAll(new ByteSequence(input, input.position(), input.remaining(), ignoreCase));
+    }
+
+    /**
+     * 一次扫描找出字节缓冲区的剩余字节中出现过的所有目标字符串
+     *
+     * @param input 以UTF-8编码的字节缓冲区
+     * @return 出现过的目标字符串下标集合，下标与{@link #getTargets()}一致
+     * @see #isContainAnyUtf8(ByteBuffer)
+     */
+    public BitSet matchedTargetsUtf8(ByteBuffer input) {
+        if (input == null) {
+            return new BitSet(targets.length);
+        }
+        return this.utf8Pattern().matchedTargets(new ByteSequence(input, input.position(), input.remaining(), ignoreCase));
+    }
+
+    /**
+     * 获取在UTF-8字节上查找时使用的多目标查找模式，目标下标与当前模式保持一致
+     *
+     * @return 字节多目标查找模式
+     */
+    private MultiSearchPattern utf8Pattern() {
+        // 查找模式不可变，并发创建多个实例也不影响结果
+        MultiSearchPattern pattern = utf8Pattern;
+        if (pattern == null) {
+            String[] byteTargets = new String[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                byteTargets[i] = ByteSequence.toByteString(targets[i], ignoreCase);
+            }
+            utf8Pattern = pattern = new MultiSearchPattern(false, byteTargets);
+        }
+        return pattern;
+    }
+
+    /**
+     * 一次扫描移除输入字符序列中出现的所有目标字符串
+     *
+     * @param input 要清理的字符序列
+     * @return 清理后的字符串
+     */
+    public String clean(CharSequence input) {
+        if (input == null || input.length() == 0) {
+            return UniversalString.EMPTY_STRING;
+        }
+        if (targets.length == 0) {
+            return input.toString();
+        }
+        // 先查找第一个匹配，没有匹配时直接返回原字符串，不创建缓冲区
+        int inputLength = input.length();
+        int[] match = new int[3];
+        Scanner scanner = this.scanner();
+        if (!scanner.find(input, 0, inputLength, match)) {
+            return input.toString();
+        }
+        StringBuilder sb = new StringBuilder(inputLength);
+        int position = 0;
+        do {
+            // 追加匹配位置之前的内容，并跳过匹配到的目标
+            sb.append(input, position, match[0]);
+            position = match[1];
+        } while (scanner.find(input, position, inputLength, match));
+        sb.append(input, position, inputLength);
+        return sb.toString();
+    }
+
+    /**
+     * 一次扫描移除输入字符序列中出现的所有目标字符串，并将结果追加到输出中
+     *
+     * @param output 输出
+     * @param input  要清理的字符序列，不能为null
+     * @throws IOException 追加失败时抛出
+     */
+    void cleanTo(Appendable output, CharSequence input) throws IOException {
+        int inputLength = input.length();
+        int[] match = new int[3];
+        Scanner scanner = this.scanner();
+        int position = 0;
+        while (scanner.find(input, position, inputLength, match)) {
+            // 追加匹配位置之前的内容，并跳过匹配到的目标
+            output.append(input, position, match[0]);
+            position = match[1];
+        }
+        output.append(input, position, inputLength);
+    }
+
+    /**
+     * 以流的方式移除所有目标字符串，从Reader读取并写入Writer，不会关闭Reader和Writer
+     * <p>
+     * 只使用固定大小的缓冲区（默认缓冲区大小加上最长目标长度），跨越缓冲区边界的匹配同样会被移除，
+     * 结果与{@link #clean(CharSequence)}一致。
+     * </p>
+     *
+     * @param input  输入，为null时视为空输入
+     * @param output 输出
+     * @return 移除的目标数量
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public long clean(Reader input, Writer output) throws IOException {
+        return this.replace(input, output, index -> null);
+    }
+
+    /**
+     * 以流的方式替换所有目标字符串，从Reader读取并写入Writer
+     *
+     * @param input        输入，为null时视为空输入
+     * @param output       输出
+     * @param replacements 根据目标下标获取替换字符串，返回null时表示删除目标
+     * @return 替换的目标数量
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    long replace(Reader input, Writer output, IntFunction<? extends CharSequence> replacements) throws IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
+        }
+        if (input == null) {
+            return 0;
+        }
+        if (maxTargetLength == 0) {
+            // 没有有效目标时原样复制
+            StreamReplacer.copy(input, output, new char[StreamReplacer.DEFAULT_BUFFER_SIZE]);
+            return 0;
+        }
+        return StreamReplacer.replace(input, output, maxTargetLength, this.scanner(), replacements, -1);
+    }
+
+    /**
+     * 创建用于查找最左最长匹配的扫描器，每次清理或替换操作使用一个新的扫描器
+     *
+     * @return 扫描器
+     */
+    Scanner scanner() {
+        // 查找模式不可变，并发创建多个实例也不影响结果
+        MultiSearchPattern pattern = reversedPattern;
+        if (pattern == null) {
+            String[] reversedTargets = new String[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                reversedTargets[i] = new StringBuilder(targets[i]).reverse().toString();
+            }
+            reversedPattern = pattern = new MultiSearchPattern(ignoreCase, reversedTargets);
+        }
+        return new Scanner(pattern, maxTargetLength);
+    }
+
+    /**
+     * 根据当前状态和输入字符计算下一个状态
+     *
+     * @param state 当前状态
+     * @param value 输入字符（已经过大小写折叠）
+     * @return 下一个状态
+     */
+    private int next(int state, char value) {
+        while (true) {
+            int child = state == ROOT && value < 128 ? rootAscii[value] : transitions.get(state, value);
+            if (child != NONE) {
+                return child;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * 根据是否忽略大小写对字符进行折叠
+     *
+     * @param value 字符
+     * @return 折叠后的字符
+     */
+    private char fold(char value) {
+        return StringSearcher.fold(ignoreCase, value);
+    }
+
+    /**
+     * 返回多目标查找模式的字符串表示形式
+     *
+     * @return 多目标查找模式的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "MultiSearchPattern" + Arrays.toString(targets) + (ignoreCase ? "[ignoreCase]" : "");
+    }
+
+    /**
+     * 按最左最长语义查找不重叠匹配的扫描器，不是线程安全的
+     * <p>
+     * 每个位置开始的最长目标，就是反向自动机从后向前扫描到该位置时的最长输出。扫描器把输入按块读入缓冲区，
+     * 每块从块末尾再往后最长目标长度减一的位置开始反向扫描，得到块内每个位置开始的最长目标，
+     * 查找时从前向后取第一个存在目标的位置即可。输入的每个字符只读取一次，相邻块重叠的字符从缓冲区中复用，
+     * 块长度不小于最长目标长度，因此总的扫描次数是O(n)。
+     * </p>
+     */
+    static final class Scanner implements StreamReplacer.Finder {
+        /**
+         * 块长度的下限
+         */
+        private static final int MIN_BLOCK_LENGTH = 256;
+        /**
+         * 由反转后的目标构建的多目标查找模式
+         */
+        private final MultiSearchPattern reversed;
+        /**
+         * 块长度
+         */
+        private final int blockLength;
+        /**
+         * 相邻块重叠的字符数，即最长目标长度减一
+         */
+        private final int overlap;
+        /**
+         * 当前缓存对应的输入，为null时没有缓存
+         */
+        private CharSequence input;
+        /**
+         * 当前缓存对应的结束位置（不包含）
+         */
+        private int end;
+        /**
+         * 当前块的起始位置（包含）
+         */
+        private int base;
+        /**
+         * 当前块的结束位置（不包含）
+         */
+        private int blockEnd;
+        /**
+         * 缓冲区中字符的结束位置（不包含），缓冲区中的字符从base开始
+         */
+        private int charsEnd;
+        /**
+         * 大小写折叠后的字符缓冲区
+         */
+        private char[] chars = UniversalConstant.EMPTY_CHAR_ARRAY;
+        /**
+         * 块内每个位置开始的最长目标长度，没有目标时为0
+         */
+        private int[] lengths = UniversalConstant.EMPTY_INT_ARRAY;
+        /**
+         * 块内每个位置开始的最长目标下标
+         */
+        private int[] indexes = UniversalConstant.EMPTY_INT_ARRAY;
+
+        /**
+         * 构造函数
+         *
+         * @param reversed        由反转后的目标构建的多目标查找模式
+         * @param maxTargetLength 最长目标的长度
+         */
+        Scanner(MultiSearchPattern reversed, int maxTargetLength) {
+            this.reversed = reversed;
+            this.blockLength = Math.max(MIN_BLOCK_LENGTH, maxTargetLength);
+            this.overlap = Math.max(maxTargetLength - 1, 0);
+        }
+
+        /**
+         * 在输入字符序列的指定范围内查找下一个最左最长的匹配
+         * <p>
+         * 对同一输入和结束位置连续调用且起始位置不后退时复用已经扫描过的块。
+         * </p>
+         *
+         * @param input               输入字符序列
+         * @param inputStartInclusive 起始查找位置（包含）
+         * @param inputEndExclusive   结束查找位置（不包含）
+         * @param match               用于接收匹配结果的数组，格式为[起始位置, 结束位置, 目标下标]
+         * @return 找到匹配返回true，否则返回false
+         */
+        @Override
+        public boolean find(CharSequence input, int inputStartInclusive, int inputEndExclusive, int[] match) {
+            if (input != this.input || inputEndExclusive != end || inputStartInclusive < base || inputStartInclusive > charsEnd) {
+                this.input = input;
+                this.end = inputEndExclusive;
+                this.base = this.blockEnd = this.charsEnd = inputStartInclusive;
+            }
+            for (int position = inputStartInclusive; position < inputEndExclusive; position++) {
+                if (position >= blockEnd) {
+                    this.load(position);
+                }
+                int length = lengths[position - base];
+                if (length > 0) {
+                    match[0] = position;
+                    match[1] = position + length;
+                    match[2] = indexes[position - base];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 丢弃缓存的块，输入内容发生变化后调用
+         */
+        @Override
+        public void reset() {
+            this.input = null;
+        }
+
+        /**
+         * 读入从指定位置开始的下一块，并反向扫描得到块内每个位置开始的最长目标
+         *
+         * @param start 块的起始位置，不小于当前块的结束位置且不超过缓冲区中字符的结束位置
+         */
+        private void load(int start) {
+            int length = Math.min(blockLength, end - start);
+            int newCharsEnd = start + length + Math.min(overlap, end - start - length);
+            if (lengths.length < length) {
+                int capacity = Math.max(length, Math.min(blockLength, lengths.length * 2));
+                lengths = new int[capacity];
+                indexes = new int[capacity];
+            }
+            if (chars.length < newCharsEnd - start) {
+                chars = Arrays.copyOf(chars, Math.max(newCharsEnd - start, Math.min(blockLength + overlap, chars.length * 2)));
+            }
+            // 上一块之后已经读入的字符仍在缓冲区中，移到开头后只读取新的字符
+            int kept = charsEnd - start;
+            System.arraycopy(chars, start - base, chars, 0, kept);
+            for (int i = charsEnd; i < newCharsEnd; i++) {
+                chars[i - start] = reversed.fold(input.charAt(i));
+            }
+            int state = ROOT;
+            for (int i = newCharsEnd - start - 1; i >= 0; i--) {
+                state = reversed.next(state, chars[i]);
+                if (i < length) {
+                    // 反向自动机的最长输出就是从该位置开始的最长目标
+                    int found = reversed.terminal[state] != NONE ? state : reversed.dictionary[state];
+                    lengths[i] = found == NONE ? 0 : reversed.depth[found];
+                    indexes[i] = found == NONE ? NONE : reversed.terminal[found];
+                }
+            }
+            this.base = start;
+            this.blockEnd = start + length;
+            this.charsEnd = newCharsEnd;
+        }
+    }
+
+    /**
+     * 基于开放寻址法的状态转移表，键为(状态, 字符)，值为子状态
+     */
+    private static final class Transitions {
+        /**
+         * 表示空槽位的键
+         */
+        private static final long EMPTY = -1L;
+        /**
+         * 键数组，由状态和字符组合而成
+         */
+        private final long[] keys;
+        /**
+         * 值数组，存储子状态
+         */
+        private final int[] values;
+        /**
+         * 用于计算槽位的掩码
+         */
+        private final int mask;
+
+        /**
+         * 构造函数
+         *
+         * @param capacity 最多需要存储的转移数量
+         */
+        Transitions(int capacity) {
+            // 保证装载因子不超过0.5
+            int size = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+            this.keys = new long[size];
+            this.values = new int[size];
+            this.mask = size - 1;
+            Arrays.fill(this.keys, EMPTY);
+        }
+
+        /**
+         * 计算键对应的起始槽位
+         *
+         * @param key 键
+         * @return 槽位
+         */
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        /**
+         * 获取转移后的子状态
+         *
+         * @param state 当前状态
+         * @param value 字符
+         * @return 子状态，不存在时返回-1
+         */
+        int get(int state, char value) {
+            long key = ((long) state << 16) | value;
+            for (int i = this.slot(key); ; i = (i + 1) & mask) {
+                long current = keys[i];
+                if (current == key) {
+                    return values[i];
+                }
+                if (current == EMPTY) {
+                    return NONE;
+                }
+            }
+        }
+
+        /**
+         * 添加状态转移
+         *
+         * @param state 当前状态
+         * @param value 字符
+         * @param child 子状态
+         */
+        void put(int state, char value, int child) {
+            long key = ((long) state << 16) | value;
+            int i = this.slot(key);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = child;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 预编译的${...}占位符模板，与{@link UniversalString#replacePlaceholder(String, Function, boolean)}的语义一致
+ * <p>
+ * 编译时一次性扫描模板，将其拆分为固定文本片段和占位符的键，渲染时只需按顺序拼接，不使用正则表达式，
+ * 也不需要对替换内容进行转义。占位符的键不能为空，也不能包含'{'、'}'和'$'。
+ * 该类是不可变的，并且是线程安全的。
+ * </p>
+ *
+ * <pre>
+ *   PlaceholderTemplate template = UniversalString.compilePlaceholder("Hello, ${name}!");
+ *   template.render(key -&gt; "World", true) = "Hello, World!"
+ *   template.getKeys()                    = ["name"]
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class PlaceholderTemplate {
+    /**
+     * 原始模板字符串
+     */
+    private final String template;
+    /**
+     * 固定文本片段，数量比占位符数量多一个，占位符位于相邻片段之间
+     */
+    private final String[] literals;
+    /**
+     * 占位符的键，按在模板中出现的顺序排列
+     */
+    private final String[] keys;
+    /**
+     * 所有固定文本片段的总长度
+     */
+    private final int literalLength;
+
+    /**
+     * 构造函数
+     *
+     * @param template 原始模板字符串
+     * @param literals 固定文本片段
+     * @param keys     占位符的键
+     */
+    private PlaceholderTemplate(String template, String[] literals, String[] keys) {
+        this.template = template;
+        this.literals = literals;
+        this.keys = keys;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译占位符模板
+     *
+     * @param template 包含${...}占位符的模板字符串，为null时视为空字符串
+     * @return 占位符模板
+     */
+    public static PlaceholderTemplate of(String template) {
+        if (template == null) {
+            template = UniversalString.EMPTY_STRING;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int templateLength = template.length(), handledPosition = 0;
+        for (int start = template.indexOf('$'); start >= 0; start = template.indexOf('$', start + 1)) {
+            int keyStart = start + 2, keyEnd = PlaceholderTemplate.keyEnd(template, start);
+            if (keyEnd < 0) {
+                continue;
+            }
+            literals.add(template.substring(handledPosition, start));
+            keys.add(template.substring(keyStart, keyEnd));
+            // 跳过结尾的'}'，下一个占位符从其后开始查找
+            handledPosition = keyEnd + 1;
+            start = keyEnd;
+        }
+        literals.add(handledPosition == 0 ? template : template.substring(handledPosition, templateLength));
+        return new PlaceholderTemplate(template, literals.toArray(UniversalString.EMPTY_STRING_ARRAY), keys.toArray(UniversalString.EMPTY_STRING_ARRAY));
+    }
+
+    /**
+     * 检查指定位置的'$'是否为一个完整占位符的开头
+     *
+     * @param template 模板字符串
+     * @param start    '$'所在的位置
+     * @return 占位符结尾'}'所在的位置，不是完整占位符时返回-1
+     */
+    private static int keyEnd(String template, int start) {
+        int templateLength = template.length();
+        if (start + 1 >= templateLength || template.charAt(start + 1) != '{') {
+            return UniversalString.NOT_FOUND;
+        }
+        int i = start + 2;
+        while (i < templateLength) {
+            char c = template.charAt(i);
+            if (c == '}') {
+                // 键不能为空
+                return i > start + 2 ? i : UniversalString.NOT_FOUND;
+            }
+            if (c == '{' || c == '$') {
+                return UniversalString.NOT_FOUND;
+            }
+            i++;
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 获取原始模板字符串
+     *
+     * @return 原始模板字符串
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取占位符的键，按在模板中出现的顺序排列，可能包含重复的键
+     *
+     * @return 占位符的键数组副本
+     */
+    public String[] getKeys() {
+        return keys.clone();
+    }
+
+    /**
+     * 使用参数映射替换占位符
+     *
+     * @param params     用于替换占位符的参数映射，键为占位符名称，值为替换内容
+     * @param ignoreNull 当占位符对应的值为null时是否忽略处理，true表示忽略(替换为空字符串)，false表示替换为"null"
+     * @return 替换占位符后的字符串
+     */
+    public String render(Map<?, ?> params, boolean ignoreNull) {
+        return this.render(PlaceholderTemplate.asFunction(params), ignoreNull);
+    }
+
+    /**
+     * 使用函数替换占位符
+     *
+     * @param function   用于获取替换值的函数，接收占位符名称作为参数，返回替换内容，为null时返回原始模板
+     * @param ignoreNull 当占位符对应的值为null时是否忽略处理，true表示忽略(替换为空字符串)，false表示替换为"null"
+     * @return 替换占位符后的字符串
+     */
+    public String render(Function<String, String> function, boolean ignoreNull) {
+        if (function == null || keys.length == 0) {
+            return template;
+        }
+        // 先获取所有替换值，用于计算结果的精确长度
+        String[] values = new String[keys.length];
+        int length = literalLength;
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = PlaceholderTemplate.valueOf(function.apply(keys[i]), ignoreNull);
+            length += values[i].length();
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            sb.append(values[i]).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 使用函数替换占位符后追加到StringBuilder中
+     *
+     * @param output     输出
+     * @param function   用于获取替换值的函数，为null时追加原始模板
+     * @param ignoreNull 当占位符对应的值为null时是否忽略处理
+     * @return 输出
+     * @see #render(Function, boolean)
+     */
+    public StringBuilder renderTo(StringBuilder output, Function<String, String> function, boolean ignoreNull) {
+        try {
+            this.renderTo((Appendable) output, function, ignoreNull);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 使用函数替换占位符后追加到输出中，不创建中间字符串
+     *
+     * @param output     输出
+     * @param function   用于获取替换值的函数，为null时追加原始模板
+     * @param ignoreNull 当占位符对应的值为null时是否忽略处理
+     * @param <A>        输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #render(Function, boolean)
+     */
+    public <A extends Appendable> A renderTo(A output, Function<String, String> function, boolean ignoreNull) throws IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
+        }
+        if (function == null) {
+            output.append(template);
+            return output;
+        }
+        output.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            output.append(PlaceholderTemplate.valueOf(function.apply(keys[i]), ignoreNull)).append(literals[i + 1]);
+        }
+        return output;
+    }
+
+    /**
+     * 将参数映射转换为获取替换值的函数
+     *
+     * @param params 参数映射，可以为null
+     * @return 获取替换值的函数
+     */
+    static Function<String, String> asFunction(Map<?, ?> params) {
+        return key -> {
+            if (params != null) {
+                Object value = params.get(key);
+                if (value != null) {
+                    return value.toString();
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 获取替换值
+     *
+     * @param value      函数返回的替换值
+     * @param ignoreNull 当替换值为null时是否忽略处理
+     * @return 替换值
+     */
+    private static String valueOf(String value, boolean ignoreNull) {
+        if (value != null) {
+            return value;
+        }
+        return ignoreNull ? UniversalString.EMPTY_STRING : "null";
+    }
+
+    /**
+     * 返回占位符模板的字符串表示形式
+     *
+     * @return 占位符模板的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "PlaceholderTemplate[" + template + "]";
+    }
+}
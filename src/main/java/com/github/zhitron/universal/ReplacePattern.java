@@ -0,0 +1,162 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的多目标替换模式，一次扫描同时替换多个目标字符串
+ * <p>
+ * 基于{@link MultiSearchPattern}按最左最长语义查找目标：从左向右扫描，优先替换起始位置最靠左的目标，
+ * 起始位置相同时替换最长的目标，替换后的内容不会再次参与匹配。结果只构建一次。
+ * 该类是不可变的，并且是线程安全的。
+ * </p>
+ *
+ * <pre>
+ *   Map&lt;String, String&gt; map = new LinkedHashMap&lt;&gt;();
+ *   map.put("&amp;", "&amp;amp;");
+ *   map.put("&lt;", "&amp;lt;");
+ *   ReplacePattern pattern = UniversalString.compileReplace(false, map);
+ *   pattern.replace("a&lt;b&amp;c") = "a&amp;lt;b&amp;amp;c"
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class ReplacePattern {
+    /**
+     * 目标字符串的多目标查找模式
+     */
+    private final MultiSearchPattern pattern;
+    /**
+     * 与目标字符串一一对应的替换字符串，为null时表示删除目标字符串
+     */
+    private final String[] replacements;
+
+    /**
+     * 构造函数
+     *
+     * @param pattern      目标字符串的多目标查找模式
+     * @param replacements 与目标字符串一一对应的替换字符串
+     */
+    private ReplacePattern(MultiSearchPattern pattern, String[] replacements) {
+        this.pattern = pattern;
+        this.replacements = replacements;
+    }
+
+    /**
+     * 编译目标到替换字符串的映射为替换模式
+     * <p>
+     * 键为null或空字符串的映射会被忽略；值为null时表示删除目标字符串。
+     * 忽略大小写时多个键可能相同，此时以映射迭代顺序中的第一个为准。
+     * </p>
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param replacements 目标字符串到替换字符串的映射
+     * @return 替换模式
+     */
+    public static ReplacePattern of(boolean ignoreCase, Map<? extends CharSequence, ? extends CharSequence> replacements) {
+        int size = replacements == null ? 0 : replacements.size();
+        List<CharSequence> targets = new ArrayList<>(size);
+        List<String> values = new ArrayList<>(size);
+        if (replacements != null) {
+            for (Map.Entry<? extends CharSequence, ? extends CharSequence> entry : replacements.entrySet()) {
+                CharSequence target = entry.getKey();
+                if (target != null && target.length() > 0) {
+                    targets.add(target);
+                    values.add(entry.getValue() == null ? null : entry.getValue().toString());
+                }
+            }
+        }
+        // 目标已过滤掉null和空字符串，查找模式中的目标下标与替换字符串下标一致
+        MultiSearchPattern pattern = MultiSearchPattern.of(ignoreCase, targets.toArray(new CharSequence[0]));
+        return new ReplacePattern(pattern, values.toArray(UniversalString.EMPTY_STRING_ARRAY));
+    }
+
+    /**
+     * 获取目标字符串到替换字符串的映射副本，按编译时的顺序排列
+     *
+     * @return 目标字符串到替换字符串的映射
+     */
+    public Map<String, String> getReplacements() {
+        String[] targets = pattern.getTargets();
+        Map<String, String> result = new LinkedHashMap<>(targets.length * 2);
+        for (int i = 0; i < targets.length; i++) {
+            result.putIfAbsent(targets[i], replacements[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 是否忽略大小写
+     *
+     * @return 忽略大小写返回true，否则返回false
+     */
+    public boolean isIgnoreCase() {
+        return pattern.isIgnoreCase();
+    }
+
+    /**
+     * 一次扫描替换输入字符序列中的所有目标字符串
+     *
+     * @param input 要处理的字符序列
+     * @return 替换后的字符串
+     */
+    public String replace(CharSequence input) {
+        if (input == null || input.length() == 0) {
+            return UniversalString.EMPTY_STRING;
+        }
+        if (replacements.length == 0) {
+            return input.toString();
+        }
+        int inputLength = input.length();
+        int[] match = new int[3];
+        MultiSearchPattern.Scanner scanner = pattern.scanner();
+        // 先查找第一个匹配，没有匹配时直接返回原字符串，不创建缓冲区
+        if (!scanner.find(input, 0, inputLength, match)) {
+            return input.toString();
+        }
+        StringBuilder sb = new StringBuilder(inputLength);
+        int position = 0;
+        do {
+            // 追加匹配位置之前的内容以及替换内容，并跳过匹配到的目标
+            sb.append(input, position, match[0]);
+            if (replacements[match[2]] != null) {
+                sb.append(replacements[match[2]]);
+            }
+            position = match[1];
+        } while (scanner.find(input, position, inputLength, match));
+        sb.append(input, position, inputLength);
+        return sb.toString();
+    }
+
+    /**
+     * 以流的方式一次扫描替换所有目标字符串，从Reader读取并写入Writer，不会关闭Reader和Writer
+     * <p>
+     * 只使用固定大小的缓冲区（默认缓冲区大小加上最长目标长度），跨越缓冲区边界的匹配同样会被替换，
+     * 结果与{@link #replace(CharSequence)}一致。
+     * </p>
+     *
+     * @param input  输入，为null时视为空输入
+     * @param output 输出
+     * @return 替换的目标数量
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public long replace(Reader input, Writer output) throws IOException {
+        return pattern.replace(input, output, index -> replacements[index]);
+    }
+
+    /**
+     * 返回替换模式的字符串表示形式
+     *
+     * @return 替换模式的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "ReplacePattern" + this.getReplacements() + (this.isIgnoreCase() ? "[ignoreCase]" : "");
+    }
+}
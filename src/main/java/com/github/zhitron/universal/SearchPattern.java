@@ -0,0 +1,830 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 预编译的子串查找模式，目标字符串的失配表只生成一次，之后可以对任意输入重复查找
+ * <p>
+ * 各查找策略使用的失配表、反向失配表和跳跃表都在首次使用对应策略时才生成，
+ * 只查找短目标或短输入（首字符扫描）时不会生成任何表，只正向查找时也不会生成反向失配表。
+ * </p>
+ * <p>
+ * 该类是不可变的，并且是线程安全的，适合将固定的分隔符、标记等缓存为常量后在多线程中共享使用。
+ * </p>
+ * <p>
+ * 正向查找会根据目标长度、查找范围长度以及目标的周期性选择查找策略，可通过{@link #getStrategy(int)}查看。
+ * </p>
+ *
+ * <pre>
+ *   SearchPattern pattern = UniversalString.compile(true, "content-type");
+ *   pattern.indexOf("Accept: text/html, Content-Type: text/plain") = 19
+ *   pattern.isContain("content-length: 0")                          = false
+ * </pre>
+ *
+ * @author zhitron
+ */
+public final class SearchPattern {
+    /**
+     * 不超过该长度的目标使用首字符扫描
+     */
+    private static final int SHORT_TARGET_LENGTH = 3;
+    /**
+     * 小于该长度的查找范围使用首字符扫描
+     */
+    static final int SMALL_WINDOW_LENGTH = 64;
+    /**
+     * 并行查找时每个分块的最小长度，输入不足两个分块时按顺序查找
+     */
+    private static final int PARALLEL_CHUNK_LENGTH = 1 << 16;
+    /**
+     * 已编译的查找模式数量，用于确认短目标、短输入和无需修改时的快速路径没有编译查找模式
+     */
+    static final LongAdder COMPILED_COUNT = new LongAdder();
+    /**
+     * 目标字符串
+     */
+    private final String target;
+    /**
+     * 查找时用于比较的目标字符串，忽略大小写时为预先折叠后的目标字符串，否则与目标字符串相同
+     */
+    private final String foldedTarget;
+    /**
+     * 是否忽略大小写
+     */
+    private final boolean ignoreCase;
+    /**
+     * 目标字符串的KMP失配表，首次使用时创建
+     */
+    private volatile int[] next;
+    /**
+     * 目标字符串的反向KMP失配表，用于从后向前查找，首次使用时创建
+     */
+    private volatile int[] reverseNext;
+    /**
+     * 目标字符串的Horspool坏字符跳跃表，首次使用时创建，目标过短或周期性过强时为空数组
+     */
+    private volatile int[] shift;
+    /**
+     * 在UTF-8字节上查找时使用的查找模式，首次使用时创建
+     */
+    private SearchPattern utf8Pattern;
+
+    /**
+     * 构造函数
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符串，不能为空
+     */
+    SearchPattern(boolean ignoreCase, String target) {
+        this.target = target;
+        this.foldedTarget = StringSearcher.foldCase(ignoreCase, target);
+        this.ignoreCase = ignoreCase;
+        COMPILED_COUNT.increment();
+    }
+
+    /**
+     * 获取KMP失配表，首次调用时生成
+     *
+     * @return KMP失配表
+     */
+    private int[] next() {
+        // 失配表只取决于目标字符串，并发生成多份也不影响结果，volatile保证数组内容对其它线程可见
+        int[] table = next;
+        if (table == null) {
+            next = table = StringSearcher.generateNext(foldedTarget);
+        }
+        return table;
+    }
+
+    /**
+     * 获取反向KMP失配表，首次从后向前查找时生成，只正向查找的模式不会生成
+     *
+     * @return 反向KMP失配表
+     */
+    private int[] reverseNext() {
+        int[] table = reverseNext;
+        if (table == null) {
+            reverseNext = table = StringSearcher.generateReverseNext(foldedTarget);
+        }
+        return table;
+    }
+
+    /**
+     * 获取Horspool坏字符跳跃表，首次需要在长查找范围内查找时生成
+     *
+     * @return 坏字符跳跃表，目标过短或周期性过强时为空数组
+     */
+    private int[] shift() {
+        int[] table = shift;
+        if (table == null) {
+            // 最长真前后缀超过目标一半时目标周期性很强，Horspool容易退化，直接使用KMP
+            int length = target.length();
+            table = length > SHORT_TARGET_LENGTH && this.next()[length] * 2 < length ? StringSearcher.generateShift(foldedTarget) : UniversalConstant.EMPTY_INT_ARRAY;
+            shift = table;
+        }
+        return table;
+    }
+
+    /**
+     * 编译目标字符序列为查找模式
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符序列
+     * @return 查找模式
+     * @throws IllegalArgumentException 当目标字符序列为null或空时抛出
+     */
+    public static SearchPattern of(boolean ignoreCase, CharSequence target) {
+        if (target == null || target.length() == 0) {
+            throw new IllegalArgumentException("Target must not be empty.");
+        }
+        return new SearchPattern(ignoreCase, target.toString());
+    }
+
+    /**
+     * 获取目标字符串
+     *
+     * @return 目标字符串
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * 是否忽略大小写
+     *
+     * @return 忽略大小写返回true，否则返回false
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * 获取目标字符串的长度
+     *
+     * @return 目标字符串的长度
+     */
+    public int length() {
+        return target.length();
+    }
+
+    /**
+     * 获取在指定长度的查找范围内正向查找时使用的查找策略
+     *
+     * @param windowLength 查找范围的长度
+     * @return 查找策略
+     */
+    public SearchStrategy getStrategy(int windowLength) {
+        if (SearchPattern.isFirstCharOnly(target.length(), windowLength)) {
+            return SearchStrategy.FIRST_CHAR;
+        }
+        return this.shift().length == 0 ? SearchStrategy.KMP : SearchStrategy.HORSPOOL;
+    }
+
+    /**
+     * 判断在指定长度的查找范围内的一次性查找是否全程使用首字符扫描
+     * <p>
+     * 查找范围只会越查越短，初始范围使用首字符扫描时整个查找过程都不需要失配表和跳跃表，
+     * {@link UniversalString}中的静态方法此时直接调用{@link StringSearcher}，不创建查找模式。
+     * </p>
+     *
+     * @param targetLength 目标字符串的长度
+     * @param windowLength 查找范围的长度
+     * @return 全程使用首字符扫描返回true，否则返回false
+     */
+    static boolean isFirstCharOnly(int targetLength, int windowLength) {
+        return targetLength <= SHORT_TARGET_LENGTH || windowLength < SMALL_WINDOW_LENGTH;
+    }
+
+    /**
+     * 检查输入的字符序列是否包含目标字符串
+     *
+     * @param input 要检查的字符序列
+     * @return 如果包含目标字符串则返回true，否则返回false
+     */
+    public boolean isContain(CharSequence input) {
+        return input != null && this.indexOf(input, 0, input.length()) >= 0;
+    }
+
+    /**
+     * 查找目标字符串在输入字符序列中的首次出现位置
+     *
+     * @param input 要查找的字符序列
+     * @return 目标字符串的首次出现位置索引，未找到返回-1
+     */
+    public int indexOf(CharSequence input) {
+        return input == null ? UniversalString.NOT_FOUND : this.indexOf(input, 0, input.length());
+    }
+
+    /**
+     * 在输入字符序列的指定范围内查找目标字符串的首次出现位置
+     *
+     * @param input               要查找的字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @return 目标字符串的首次出现位置索引，未找到返回-1
+     */
+    public int indexOf(CharSequence input, int inputStartInclusive, int inputEndExclusive) {
+        if (!this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            return UniversalString.NOT_FOUND;
+        }
+        return this.search(input, inputStartInclusive, inputEndExclusive);
+    }
+
+    /**
+     * 在输入字符序列的指定范围内查找目标字符串第n次出现的位置，各次出现互不重叠
+     *
+     * @param input               要查找的字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param occurrence          要查找的出现次数(从1开始计数)
+     * @return 目标字符串第n次出现的起始位置，如果未找到则返回-1
+     */
+    public int indexOf(CharSequence input, int inputStartInclusive, int inputEndExclusive, int occurrence) {
+        if (occurrence <= 0 || !this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            return UniversalString.NOT_FOUND;
+        }
+        int start = inputStartInclusive, index = 0;
+        // 循环查找目标字符串，直到找到第occurrence次出现或找不到为止，每次从上一次匹配的末尾继续查找
+        for (int found = 0; found < occurrence && index >= 0; found++, start = index + target.length()) {
+            index = this.search(input, start, inputEndExclusive);
+        }
+        return index;
+    }
+
+    /**
+     * 查找目标字符串在输入字符序列中的最后出现位置
+     *
+     * @param input 要查找的字符序列
+     * @return 目标字符串的最后出现位置索引，未找到返回-1
+     */
+    public int lastIndexOf(CharSequence input) {
+        return input == null ? UniversalString.NOT_FOUND : this.lastIndexOf(input, 0, input.length());
+    }
+
+    /**
+     * 在输入字符序列的指定范围内查找目标字符串的最后出现位置
+     *
+     * @param input               要查找的字符序列
+     * @param inputStartInclusive 开始搜索位置（包含）
+     * @param inputEndExclusive   结束搜索位置（不包含）
+     * @return 目标字符串的最后出现位置索引，未找到返回-1
+     */
+    public int lastIndexOf(CharSequence input, int inputStartInclusive, int inputEndExclusive) {
+        if (!this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            return UniversalString.NOT_FOUND;
+        }
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, this.reverseNext(), 1);
+    }
+
+    /**
+     * 在输入字符序列的指定范围内从后向前查找目标字符串第n次出现的位置，各次出现互不重叠
+     *
+     * @param input               要查找的字符序列
+     * @param inputStartInclusive 开始搜索位置（包含）
+     * @param inputEndExclusive   结束搜索位置（不包含）
+     * @param occurrence          查找倒数第几次出现的位置(从1开始计数)
+     * @return 目标字符串倒数第n次出现的起始位置，如果未找到则返回-1
+     */
+    public int lastIndexOf(CharSequence input, int inputStartInclusive, int inputEndExclusive, int occurrence) {
+        if (occurrence <= 0 || !this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            return UniversalString.NOT_FOUND;
+        }
+        // 从结束位置向前一次扫描，找到第occurrence次出现的位置后立即返回
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, this.reverseNext(), occurrence);
+    }
+
+    /**
+     * 计算目标字符串在输入字符序列中不重叠出现的次数
+     *
+     * @param input 输入字符序列
+     * @return 目标字符串出现的次数
+     */
+    public int countOccurrences(CharSequence input) {
+        return input == null ? 0 : this.countOccurrences(input, 0, input.length());
+    }
+
+    /**
+     * 计算目标字符串在输入字符序列指定范围内不重叠出现的次数
+     *
+     * @param input               输入字符序列
+     * @param inputStartInclusive 开始统计位置（包含）
+     * @param inputEndExclusive   结束统计位置（不包含）
+     * @return 目标字符串出现的次数
+     */
+    public int countOccurrences(CharSequence input, int inputStartInclusive, int inputEndExclusive) {
+        if (!this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            return 0;
+        }
+        int count = 0;
+        // 每次从上一次匹配的末尾继续查找，各次出现互不重叠
+        for (int start = inputStartInclusive, index; (index = this.search(input, start, inputEndExclusive)) >= 0; start = index + target.length()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 在字节缓冲区的剩余字节（position到limit）中查找目标字符串UTF-8编码的首次出现位置，不解码输入，也不修改缓冲区的position
+     * <p>
+     * 忽略大小写时只对ASCII字母生效。
+     * </p>
+     *
+     * @param input 以UTF-8编码的字节缓冲区，可以是堆内、直接或内存映射缓冲区
+     * @return 首次出现位置在缓冲区中的绝对字节下标，未找到返回-1
+     */
+    public int indexOfUtf8(ByteBuffer input) {
+        if (input == null) {
+            return UniversalString.NOT_FOUND;
+        }
+        return this.indexOfUtf8(input, input.position(), input.limit());
+    }
+
+    /**
+     * 检查字节缓冲区的剩余字节中是否包含目标字符串的UTF-8编码
+     *
+     * @param input 以UTF-8编码的字节缓冲区
+     * @return 如果包含目标字符串则返回true，否则返回false
+     * @see #indexOfUtf8(ByteBuffer)
+     */
+    public boolean isContainUtf8(ByteBuffer input) {
+        return this.indexOfUtf8(input) >= 0;
+    }
+
+    /**
+     * 计算目标字符串的UTF-8编码在字节缓冲区的剩余字节中不重叠出现的次数
+     *
+     * @param input 以UTF-8编码的字节缓冲区
+     * @return 目标字符串出现的次数
+     * @see #indexOfUtf8(ByteBuffer)
+     */
+    public int countOccurrencesUtf8(ByteBuffer input) {
+        if (input == null) {
+            return 0;
+        }
+        int count = 0, limit = input.limit(), targetLength = this.utf8Pattern().length();
+        // 每次从上一次匹配的末尾继续查找，各次出现互不重叠
+        for (int start = input.position(), index; (index = this.indexOfUtf8(input, start, limit)) >= 0; start = index + targetLength) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 在字节缓冲区的指定范围内查找目标字符串UTF-8编码的首次出现位置
+     * <p>
+     * 首字符扫描策略下使用SWAR每次检查8个字节来查找首字节；忽略大小写且首字节为ASCII字母时无法按单个字节查找，改用字节序列查找。
+     * </p>
+     *
+     * @param input         以UTF-8编码的字节缓冲区
+     * @param fromInclusive 起始位置（包含）
+     * @param toExclusive   结束位置（不包含）
+     * @return 首次出现位置在缓冲区中的绝对字节下标，未找到返回-1
+     */
+    private int indexOfUtf8(ByteBuffer input, int fromInclusive, int toExclusive) {
+        SearchPattern pattern = this.utf8Pattern();
+        String bytes = pattern.target;
+        if (toExclusive - fromInclusive < bytes.length()) {
+            return UniversalString.NOT_FOUND;
+        }
+        // 忽略大小写时目标中的ASCII字母已折叠为小写
+        char first = bytes.charAt(0);
+        if (pattern.getStrategy(toExclusive - fromInclusive) == SearchStrategy.FIRST_CHAR && !(ignoreCase && first >= 'a' && first <= 'z')) {
+            return SwarScanner.indexOf(input, fromInclusive, toExclusive, bytes, ignoreCase);
+        }
+        int index = pattern.indexOf(new ByteSequence(input, fromInclusive, toExclusive - fromInclusive, ignoreCase));
+        return index < 0 ? UniversalString.NOT_FOUND : fromInclusive + index;
+    }
+
+    /**
+     * 获取在UTF-8字节上查找时使用的查找模式，目标被编码为每个字节对应一个字符的形式，ASCII字母已按需折叠为小写
+     *
+     * @return 字节查找模式
+     */
+    private SearchPattern utf8Pattern() {
+        // 查找模式不可变，并发创建多个实例也不影响结果
+        SearchPattern pattern = utf8Pattern;
+        if (pattern == null) {
+            utf8Pattern = pattern = new SearchPattern(false, ByteSequence.toByteString(target, ignoreCase));
+        }
+        return pattern;
+    }
+
+    /**
+     * 对一批输入字符序列分别查找目标字符串的首次出现位置，失配表等预处理结果在整批输入间共享
+     *
+     * @param inputs   输入字符序列数组，其中的null元素视为未找到
+     * @param parallel 是否在ForkJoinPool中并行处理各个输入
+     * @return 与输入一一对应的首次出现位置数组，未找到的位置为-1
+     */
+    public int[] batchIndexOf(CharSequence[] inputs, boolean parallel) {
+        if (inputs == null || inputs.length == 0) {
+            return UniversalConstant.EMPTY_INT_ARRAY;
+        }
+        int[] result = new int[inputs.length];
+        IntStream indexes = IntStream.range(0, inputs.length);
+        (parallel ? indexes.parallel() : indexes).forEach(i -> result[i] = this.indexOf(inputs[i]));
+        return result;
+    }
+
+    /**
+     * 对一批输入字符序列分别查找目标字符串的首次出现位置
+     *
+     * @param inputs   输入字符序列集合，其中的null元素视为未找到
+     * @param parallel 是否在ForkJoinPool中并行处理各个输入
+     * @return 与输入迭代顺序一一对应的首次出现位置数组，未找到的位置为-1
+     * @see #batchIndexOf(CharSequence[], boolean)
+     */
+    public int[] batchIndexOf(Collection<? extends CharSequence> inputs, boolean parallel) {
+        return inputs == null ? UniversalConstant.EMPTY_INT_ARRAY : this.batchIndexOf(inputs.toArray(new CharSequence[0]), parallel);
+    }
+
+    /**
+     * 检查一批输入字符序列中哪些包含目标字符串
+     *
+     * @param inputs   输入字符序列数组，其中的null元素视为不包含
+     * @param parallel 是否在ForkJoinPool中并行处理各个输入
+     * @return 包含目标字符串的输入下标集合
+     */
+    public BitSet batchIsContain(CharSequence[] inputs, boolean parallel) {
+        int[] indexes = this.batchIndexOf(inputs, parallel);
+        BitSet result = new BitSet(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] >= 0) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 检查一批输入字符序列中哪些包含目标字符串
+     *
+     * @param inputs   输入字符序列集合，其中的null元素视为不包含
+     * @param parallel 是否在ForkJoinPool中并行处理各个输入
+     * @return 包含目标字符串的输入在迭代顺序中的下标集合
+     * @see #batchIsContain(CharSequence[], boolean)
+     */
+    public BitSet batchIsContain(Collection<? extends CharSequence> inputs, boolean parallel) {
+        return inputs == null ? new BitSet() : this.batchIsContain(inputs.toArray(new CharSequence[0]), parallel);
+    }
+
+    /**
+     * 在ForkJoinPool中并行计算目标字符串在输入字符序列中不重叠出现的次数，结果与{@link #countOccurrences(CharSequence)}完全一致
+     * <p>
+     * 输入被切分为多个分块，每个分块额外向后读取目标长度减一个字符，只统计起始位置落在本分块内的出现。
+     * 目标字符串存在相同的真前后缀时，各次出现可能互相重叠，不重叠计数无法分块独立计算，此时按顺序统计；
+     * 输入较短时同样按顺序统计。并行期间输入字符序列不能被修改，并且其charAt方法需要支持多线程读取。
+     * </p>
+     *
+     * @param input 输入字符序列
+     * @return 目标字符串出现的次数
+     */
+    public int parallelCountOccurrences(CharSequence input) {
+        if (input == null) {
+            return 0;
+        }
+        int inputLength = input.length(), targetLength = target.length();
+        if (inputLength < PARALLEL_CHUNK_LENGTH * 2 || this.next()[targetLength] > 0) {
+            return this.countOccurrences(input, 0, inputLength);
+        }
+        int chunkLength = this.parallelChunkLength(inputLength);
+        int chunkCount = (inputLength + chunkLength - 1) / chunkLength;
+        return IntStream.range(0, chunkCount).parallel().map(chunk -> {
+            int start = chunk * chunkLength;
+            int end = (int) Math.min((long) start + chunkLength + targetLength - 1, inputLength);
+            return end - start < targetLength ? 0 : this.countOccurrences(input, start, end);
+        }).sum();
+    }
+
+    /**
+     * 在ForkJoinPool中并行查找目标字符串在输入字符序列中的首次出现位置，结果与{@link #indexOf(CharSequence)}完全一致
+     * <p>
+     * 输入被切分为多个分块，每个分块额外向后读取目标长度减一个字符，取最靠前的分块中的匹配结果。
+     * 输入较短时按顺序查找。并行期间输入字符序列不能被修改，并且其charAt方法需要支持多线程读取。
+     * </p>
+     *
+     * @param input 输入字符序列
+     * @return 目标字符串的首次出现位置索引，未找到返回-1
+     */
+    public int parallelIndexOf(CharSequence input) {
+        if (input == null) {
+            return UniversalString.NOT_FOUND;
+        }
+        int inputLength = input.length(), targetLength = target.length();
+        if (inputLength < PARALLEL_CHUNK_LENGTH * 2) {
+            return this.indexOf(input, 0, inputLength);
+        }
+        int chunkLength = this.parallelChunkLength(inputLength);
+        int chunkCount = (inputLength + chunkLength - 1) / chunkLength;
+        return IntStream.range(0, chunkCount).parallel().map(chunk -> {
+            int start = chunk * chunkLength;
+            int end = (int) Math.min((long) start + chunkLength + targetLength - 1, inputLength);
+            return end - start < targetLength ? UniversalString.NOT_FOUND : this.search(input, start, end);
+        }).filter(index -> index >= 0).findFirst().orElse(UniversalString.NOT_FOUND);
+    }
+
+    /**
+     * 计算并行查找时的分块长度，保证每个线程能分到多个分块以平衡负载
+     *
+     * @param inputLength 输入长度
+     * @return 分块长度
+     */
+    private int parallelChunkLength(int inputLength) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(PARALLEL_CHUNK_LENGTH, inputLength / (parallelism * 4));
+    }
+
+    /**
+     * 惰性迭代目标字符串在输入字符序列中所有出现的位置
+     *
+     * @param input       输入字符序列
+     * @param overlapping 是否允许各次出现互相重叠
+     * @return 出现位置的迭代器，按位置升序返回
+     */
+    public PrimitiveIterator.OfInt iterator(CharSequence input, boolean overlapping) {
+        return input == null ? this.iterator(UniversalString.EMPTY_STRING, 0, 0, overlapping) : this.iterator(input, 0, input.length(), overlapping);
+    }
+
+    /**
+     * 惰性迭代目标字符串在输入字符序列指定范围内所有出现的位置
+     * <p>
+     * 每次迭代都从上一次匹配后的KMP状态继续扫描，整个迭代过程只扫描一遍输入。
+     * </p>
+     *
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param overlapping         是否允许各次出现互相重叠
+     * @return 出现位置的迭代器，按位置升序返回
+     */
+    public PrimitiveIterator.OfInt iterator(CharSequence input, int inputStartInclusive, int inputEndExclusive, boolean overlapping) {
+        if (!this.isValidate(input, inputStartInclusive, inputEndExclusive)) {
+            // 范围无效时返回空迭代器
+            return new MatchIterator(UniversalString.EMPTY_STRING, 0, 0, overlapping);
+        }
+        return new MatchIterator(input, inputStartInclusive, inputEndExclusive, overlapping);
+    }
+
+    /**
+     * 获取目标字符串在输入字符序列中所有出现位置的流
+     *
+     * @param input       输入字符序列
+     * @param overlapping 是否允许各次出现互相重叠
+     * @return 出现位置的流，按位置升序排列
+     */
+    public IntStream stream(CharSequence input, boolean overlapping) {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL;
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(this.iterator(input, overlapping), characteristics), false);
+    }
+
+    /**
+     * 替换输入字符序列中的目标字符串
+     *
+     * @param input        要处理的字符序列
+     * @param replacement  替换后的字符串，为null时表示删除目标字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @return 替换后的字符串
+     */
+    public String replace(CharSequence input, CharSequence replacement, int replaceCount) {
+        if (input == null || input.length() == 0) {
+            return UniversalString.EMPTY_STRING;
+        }
+        if (replaceCount == 0) {
+            return input.toString();
+        }
+        // 先查找第一个匹配，没有匹配时直接返回原字符串，不创建缓冲区
+        int foundIndex = this.search(input, 0, input.length());
+        if (foundIndex == -1) {
+            return input.toString();
+        }
+        StringBuilder sb = new StringBuilder(input.length());
+        try {
+            this.replaceTo(sb, input, replacement, replaceCount, foundIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 替换输入字符序列中的目标字符串，并将结果追加到输出中
+     *
+     * @param output       输出
+     * @param input        要处理的字符序列，不能为null
+     * @param replacement  替换后的字符串，为null时表示删除目标字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @throws IOException 追加失败时抛出
+     */
+    void replaceTo(Appendable output, CharSequence input, CharSequence replacement, int replaceCount) throws IOException {
+        this.replaceTo(output, input, replacement, replaceCount, replaceCount == 0 ? -1 : this.search(input, 0, input.length()));
+    }
+
+    /**
+     * 从已知的第一个匹配位置开始替换输入字符序列中的目标字符串，并将结果追加到输出中
+     *
+     * @param output       输出
+     * @param input        要处理的字符序列，不能为null
+     * @param replacement  替换后的字符串，为null时表示删除目标字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @param foundIndex   第一个匹配的位置，-1表示没有匹配
+     * @throws IOException 追加失败时抛出
+     */
+    private void replaceTo(Appendable output, CharSequence input, CharSequence replacement, int replaceCount, int foundIndex) throws IOException {
+        int inputLength = input.length(), targetLength = target.length();
+        int startIndex = 0;
+        int replacementCount = 0;
+        for (; replaceCount != 0 && foundIndex != -1; foundIndex = this.search(input, startIndex, inputLength)) {
+            // 追加匹配位置之前的内容
+            output.append(input, startIndex, foundIndex);
+            // 追加替换内容
+            if (replacement != null) {
+                output.append(replacement);
+            }
+            // 跳过匹配到的目标字符串
+            startIndex = foundIndex + targetLength;
+            // 达到替换次数上限后停止
+            replacementCount++;
+            if (replaceCount > 0 && replacementCount >= replaceCount) {
+                break;
+            }
+        }
+        // 追加剩余内容
+        output.append(input, startIndex, inputLength);
+    }
+
+    /**
+     * 以流的方式替换目标字符串，从Reader读取并写入Writer，不会关闭Reader和Writer
+     * <p>
+     * 只使用固定大小的缓冲区（默认缓冲区大小加上目标长度），跨越缓冲区边界的匹配同样会被替换，
+     * 结果与{@link #replace(CharSequence, CharSequence, int)}一致。
+     * </p>
+     *
+     * @param input        输入，为null时视为空输入
+     * @param output       输出
+     * @param replacement  替换后的字符串，为null时表示删除目标字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @return 实际替换的次数
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public long replace(Reader input, Writer output, CharSequence replacement, int replaceCount) throws IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
+        }
+        if (input == null) {
+            return 0;
+        }
+        int targetLength = target.length();
+        return StreamReplacer.replace(input, output, targetLength, (sequence, start, end, match) -> {
+            int index = end - start < targetLength ? UniversalString.NOT_FOUND : this.search(sequence, start, end);
+            match[0] = index;
+            match[1] = index + targetLength;
+            return index >= 0;
+        }, index -> replacement, replaceCount);
+    }
+
+    /**
+     * 按查找策略在输入字符序列的指定范围内查找目标字符串的首次出现位置
+     *
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @return 首次出现的位置，未找到返回-1
+     */
+    private int search(CharSequence input, int inputStartInclusive, int inputEndExclusive) {
+        switch (this.getStrategy(inputEndExclusive - inputStartInclusive)) {
+            case FIRST_CHAR:
+                return StringSearcher.indexOfFirstChar(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget);
+            case HORSPOOL:
+                return StringSearcher.indexOfHorspool(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, this.shift(), this.next());
+            default:
+                return StringSearcher.indexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, this.next());
+        }
+    }
+
+    /**
+     * 验证输入字符序列及查找范围是否有效
+     *
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始位置（包含）
+     * @param inputEndExclusive   结束位置（不包含）
+     * @return 有效返回true，否则返回false
+     */
+    private boolean isValidate(CharSequence input, int inputStartInclusive, int inputEndExclusive) {
+        int targetLength = target.length();
+        return input != null && UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, input.length(), 0, targetLength, targetLength);
+    }
+
+    /**
+     * 返回查找模式的字符串表示形式
+     *
+     * @return 查找模式的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "SearchPattern[" + target + (ignoreCase ? ", ignoreCase]" : "]");
+    }
+
+    /**
+     * 基于KMP状态的惰性匹配迭代器，匹配之后从当前状态继续扫描而不是重新开始
+     */
+    private final class MatchIterator implements PrimitiveIterator.OfInt {
+        /**
+         * 输入字符序列
+         */
+        private final CharSequence input;
+        /**
+         * 结束查找位置（不包含）
+         */
+        private final int end;
+        /**
+         * 是否允许重叠
+         */
+        private final boolean overlapping;
+        /**
+         * 目标字符串的KMP失配表
+         */
+        private final int[] next = SearchPattern.this.next();
+        /**
+         * 下一个要读取的输入位置
+         */
+        private int i;
+        /**
+         * 当前已匹配的目标长度
+         */
+        private int j;
+        /**
+         * 预先查找到的下一个匹配位置，-1表示没有更多匹配，-2表示尚未查找
+         */
+        private int nextMatch = -2;
+
+        /**
+         * 构造函数
+         *
+         * @param input       输入字符序列
+         * @param start       起始查找位置（包含）
+         * @param end         结束查找位置（不包含）
+         * @param overlapping 是否允许重叠
+         */
+        MatchIterator(CharSequence input, int start, int end, boolean overlapping) {
+            this.input = input;
+            this.end = end;
+            this.overlapping = overlapping;
+            this.i = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextMatch == -2) {
+                nextMatch = this.advance();
+            }
+            return nextMatch >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int result = nextMatch;
+            nextMatch = -2;
+            return result;
+        }
+
+        /**
+         * 从当前状态继续扫描到下一个匹配
+         *
+         * @return 下一个匹配位置，没有更多匹配时返回-1
+         */
+        private int advance() {
+            int targetLength = target.length();
+            while (i < end) {
+                if (j == -1 || StringSearcher.fold(ignoreCase, input.charAt(i)) == foldedTarget.charAt(j)) {
+                    i++;
+                    if (++j == targetLength) {
+                        // 重叠模式按失配表回退，非重叠模式从目标开头重新比较
+                        j = overlapping ? next[j] : 0;
+                        return i - targetLength;
+                    }
+                } else {
+                    j = next[j];
+                }
+            }
+            return UniversalString.NOT_FOUND;
+        }
+    }
+}
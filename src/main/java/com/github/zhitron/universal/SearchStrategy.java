@@ -0,0 +1,23 @@
+package com.github.zhitron.universal;
+
+/**
+ * 子串查找策略枚举，由{@link SearchPattern}根据目标长度、查找范围长度以及目标的周期性自动选择
+ *
+ * @author zhitron
+ * @see SearchPattern#getStrategy(int)
+ */
+public enum SearchStrategy {
+    /**
+     * 首字符扫描，先查找目标的首字符再比较剩余字符，适合很短的目标或很小的查找范围
+     */
+    FIRST_CHAR,
+    /**
+     * Boyer-Moore-Horspool算法，按坏字符表跳跃，适合较长的目标；
+     * 比较次数超出线性预算时会从当前位置切换为KMP，以保证最坏情况下的线性时间
+     */
+    HORSPOOL,
+    /**
+     * KMP算法，最坏情况下为线性时间，适合周期性很强的目标（例如"aaaa"、"abab"）
+     */
+    KMP
+}
@@ -0,0 +1,417 @@
+package com.github.zhitron.universal;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * 惰性分割字符序列的Spliterator，与{@link UniversalString#split(boolean, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, IntPredicate, CharSequence)}的语义一致
+ * <p>
+ * 直接在原字符序列上按字符扫描分隔符，每次只生成一个元素，调用方提前结束时不会处理剩余内容。
+ * 分隔符的匹配位置和元素的去除都以code point为单位，不会拆开代理对。
+ * 并行处理时在剩余范围的中点之后查找分隔符，从分隔符处拆分，拆分出的前半部分以该分隔符结束，
+ * 与顺序分割得到的元素完全相同。可以与自身重叠的分隔符（例如"aa"）只在前面不存在与其重叠的匹配时才会拆分，
+ * 保证拆分位置就是顺序分割时选中的分隔符。
+ * </p>
+ * <p>
+ * 元素的边界由{@link #advance()}计算，生成字符串和只输出边界索引的分割共用同一套规则。
+ * </p>
+ *
+ * @author zhitron
+ */
+final class SplitSpliterator implements Spliterator<String> {
+    /**
+     * 剩余范围小于该长度时不再拆分
+     */
+    private static final int MIN_SPLIT_LENGTH = 1 << 12;
+    /**
+     * 要分割的字符序列
+     */
+    private final CharSequence input;
+    /**
+     * 分隔符查找模式，为null时整个范围作为一个已经处理完毕的元素
+     */
+    private final SearchPattern delimiter;
+    /**
+     * 每个元素的前缀，为null时不处理
+     */
+    private final String elementPrefix;
+    /**
+     * 每个元素的后缀，为null时不处理
+     */
+    private final String elementSuffix;
+    /**
+     * 去除条件谓词，为null时不去除
+     */
+    private final IntPredicate trimCondition;
+    /**
+     * 是否保留空元素
+     */
+    private final boolean retainEmpty;
+    /**
+     * 分隔符以低代理项开头或以高代理项结尾时，匹配位置可能拆开代理对，需要检查匹配的两端
+     */
+    private final boolean checkBoundary;
+    /**
+     * 当前范围的结束位置，不是输入的末尾时该位置是一个分隔符的起始位置
+     */
+    private final int limit;
+    /**
+     * 当前范围是否延伸到输入的末尾，只有延伸到末尾的范围包含最后一个元素
+     */
+    private final boolean terminal;
+    /**
+     * 当前元素的边界，格式为[起始位置startInclusive, 结束位置endExclusive]
+     */
+    private final int[] bound = new int[2];
+    /**
+     * 下一个元素的起始位置
+     */
+    private int position;
+    /**
+     * 是否已经生成了范围内的所有元素
+     */
+    private boolean done;
+
+    /**
+     * 构造函数
+     *
+     * @param input         要分割的字符序列
+     * @param delimiter     分隔符查找模式，为null时整个范围作为一个元素
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param trimCondition 去除条件谓词
+     * @param retainEmpty   是否保留空元素
+     * @param position      起始位置
+     * @param limit         结束位置
+     * @param terminal      结束位置是否是输入的末尾
+     */
+    private SplitSpliterator(CharSequence input, SearchPattern delimiter, String elementPrefix, String elementSuffix,
+                             IntPredicate trimCondition, boolean retainEmpty, int position, int limit, boolean terminal) {
+        this.input = input;
+        this.delimiter = delimiter;
+        this.elementPrefix = elementPrefix;
+        this.elementSuffix = elementSuffix;
+        this.trimCondition = trimCondition;
+        this.retainEmpty = retainEmpty;
+        String target = delimiter == null ? null : delimiter.getTarget();
+        this.checkBoundary = target != null && (Character.isLowSurrogate(target.charAt(0)) || Character.isHighSurrogate(target.charAt(target.length() - 1)));
+        this.position = position;
+        this.limit = limit;
+        this.terminal = terminal;
+    }
+
+    /**
+     * 创建分割字符序列的Spliterator，整体的去除、前缀和后缀在创建时处理，元素在遍历时惰性生成
+     *
+     * @param retainEmpty   是否保留空元素
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param trimCondition 去除条件谓词，用于去除元素前后的空白字符
+     * @param input         要分割的字符序列
+     * @return 分割结果的Spliterator
+     */
+    static SplitSpliterator of(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                  CharSequence prefix, CharSequence suffix, IntPredicate trimCondition, CharSequence input) {
+        if (input == null || input.length() == 0) {
+            return SplitSpliterator.single(UniversalString.EMPTY_STRING, 0, 0, retainEmpty);
+        }
+        int[] bound = {0, input.length()};
+        SplitSpliterator.trim(input, bound, trimCondition);
+        SplitSpliterator.strip(input, bound, SplitSpliterator.nonEmpty(prefix), SplitSpliterator.nonEmpty(suffix), true);
+        if (bound[0] >= bound[1]) {
+            return SplitSpliterator.single(input, bound[0], bound[0], retainEmpty);
+        }
+        String elementPrefixString = SplitSpliterator.nonEmpty(elementPrefix), elementSuffixString = SplitSpliterator.nonEmpty(elementSuffix);
+        if (delimiter == null || delimiter.length() == 0) {
+            // 没有分隔符时整体作为一个元素
+            SplitSpliterator.strip(input, bound, elementPrefixString, elementSuffixString, true);
+            return SplitSpliterator.single(input, bound[0], Math.max(bound[0], bound[1]), retainEmpty);
+        }
+        return new SplitSpliterator(input, SearchPattern.of(false, delimiter), elementPrefixString, elementSuffixString,
+                trimCondition, retainEmpty, bound[0], bound[1], true);
+    }
+
+    /**
+     * 创建最多只包含一个元素的Spliterator
+     *
+     * @param input          字符序列
+     * @param startInclusive 元素的起始位置
+     * @param endExclusive   元素的结束位置
+     * @param retainEmpty    元素为空时是否保留
+     * @return 分割结果的Spliterator
+     */
+    private static SplitSpliterator single(CharSequence input, int startInclusive, int endExclusive, boolean retainEmpty) {
+        return new SplitSpliterator(input, null, null, null, null, retainEmpty, startInclusive, endExclusive, true);
+    }
+
+    /**
+     * 将字符序列转换为字符串，为null或空时返回null
+     *
+     * @param value 字符序列
+     * @return 字符串
+     */
+    private static String nonEmpty(CharSequence value) {
+        return value == null || value.length() == 0 ? null : value.toString();
+    }
+
+    /**
+     * 去除边界两端满足条件的code point
+     *
+     * @param input         字符序列
+     * @param bound         边界数组，会被修改
+     * @param trimCondition 去除条件谓词，为null时不去除
+     */
+    private static void trim(CharSequence input, int[] bound, IntPredicate trimCondition) {
+        if (trimCondition == null) {
+            return;
+        }
+        if (trimCondition instanceof CodePointClass) {
+            SplitSpliterator.trim(input, bound, (CodePointClass) trimCondition);
+            return;
+        }
+        while (bound[0] < bound[1]) {
+            int codePoint = Character.codePointAt(input, bound[0]);
+            if (!trimCondition.test(codePoint)) {
+                break;
+            }
+            bound[0] += Character.charCount(codePoint);
+        }
+        while (bound[0] < bound[1]) {
+            int codePoint = Character.codePointBefore(input, bound[1]);
+            if (!trimCondition.test(codePoint)) {
+                break;
+            }
+            bound[1] -= Character.charCount(codePoint);
+        }
+        // 边界拆开了代理对时，两端可能越过对方
+        if (bound[0] > bound[1]) {
+            bound[0] = bound[1];
+        }
+    }
+
+    /**
+     * 去除边界两端属于code point集合的code point
+     * <p>
+     * 参数类型是final的{@link CodePointClass}，判断调用是单态的，可以被JIT内联；
+     * ASCII字符直接按字符查掩码，不需要按code point解码，只有非ASCII字符才解码后在区间中查找。
+     * </p>
+     *
+     * @param input         字符序列
+     * @param bound         边界数组，会被修改
+     * @param trimCondition 需要去除的code point集合
+     */
+    private static void trim(CharSequence input, int[] bound, CodePointClass trimCondition) {
+        while (bound[0] < bound[1]) {
+            char value = input.charAt(bound[0]);
+            if (value < CodePointClass.ASCII_LIMIT) {
+                if (!trimCondition.test(value)) {
+                    break;
+                }
+                bound[0]++;
+                continue;
+            }
+            int codePoint = Character.codePointAt(input, bound[0]);
+            if (!trimCondition.test(codePoint)) {
+                break;
+            }
+            bound[0] += Character.charCount(codePoint);
+        }
+        while (bound[0] < bound[1]) {
+            char value = input.charAt(bound[1] - 1);
+            if (value < CodePointClass.ASCII_LIMIT) {
+                if (!trimCondition.test(value)) {
+                    break;
+                }
+                bound[1]--;
+                continue;
+            }
+            int codePoint = Character.codePointBefore(input, bound[1]);
+            if (!trimCondition.test(codePoint)) {
+                break;
+            }
+            bound[1] -= Character.charCount(codePoint);
+        }
+        // 边界拆开了代理对时，两端可能越过对方
+        if (bound[0] > bound[1]) {
+            bound[0] = bound[1];
+        }
+    }
+
+    /**
+     * 去除边界开头的前缀和结尾的后缀
+     *
+     * @param input    字符序列
+     * @param bound    边界数组，会被修改
+     * @param prefix   前缀，为null时不处理
+     * @param suffix   后缀，为null时不处理
+     * @param repeated 是否重复去除，false时最多去除一次
+     */
+    private static void strip(CharSequence input, int[] bound, String prefix, String suffix, boolean repeated) {
+        if (prefix != null) {
+            int prefixLength = prefix.length();
+            while (prefixLength <= bound[1] - bound[0] && UniversalString.regionMatches(false, input, bound[0], prefix, 0, prefixLength)) {
+                bound[0] += prefixLength;
+                if (!repeated) {
+                    break;
+                }
+            }
+        }
+        if (suffix != null) {
+            int suffixLength = suffix.length();
+            while (suffixLength <= bound[1] - bound[0] && UniversalString.regionMatches(false, input, bound[1] - suffixLength, suffix, 0, suffixLength)) {
+                bound[1] -= suffixLength;
+                if (!repeated) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理一个元素的边界，依次去除两端、元素前缀和后缀，然后再次去除两端
+     *
+     * @param startInclusive 元素的起始位置
+     * @param endExclusive   元素的结束位置
+     * @param last           是否是最后一个元素，最后一个元素的前缀和后缀最多去除一次
+     * @return 元素需要输出时返回true，为空且不保留空元素时返回false
+     */
+    private boolean element(int startInclusive, int endExclusive, boolean last) {
+        bound[0] = startInclusive;
+        bound[1] = endExclusive;
+        SplitSpliterator.trim(input, bound, trimCondition);
+        SplitSpliterator.strip(input, bound, elementPrefix, elementSuffix, !last);
+        SplitSpliterator.trim(input, bound, trimCondition);
+        return bound[0] < bound[1] || retainEmpty;
+    }
+
+    /**
+     * 计算下一个元素的边界并保存到{@link #bound}中，不创建任何对象
+     *
+     * @return 存在下一个元素时返回true，否则返回false
+     */
+    boolean advance() {
+        while (!done) {
+            boolean found;
+            if (delimiter == null) {
+                // 整个范围作为一个元素
+                done = true;
+                bound[0] = position;
+                bound[1] = limit;
+                found = position < limit || retainEmpty;
+            } else {
+                int index = this.indexOf(position, limit);
+                if (index >= 0) {
+                    found = this.element(position, index, false);
+                    position = index + delimiter.getTarget().length();
+                } else {
+                    // 没有更多分隔符，处理范围内的最后一个元素
+                    done = true;
+                    if (!terminal || position < limit) {
+                        found = this.element(position, limit, terminal);
+                    } else {
+                        bound[0] = bound[1] = limit;
+                        found = retainEmpty;
+                    }
+                }
+            }
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将剩余元素的边界依次写入输出数组，格式为[起始0, 结束0, 起始1, 结束1, ...]
+     *
+     * @param output 输出数组，容量不足时只写入能容纳的元素
+     * @return 剩余元素的数量，可能大于写入的数量
+     */
+    int fill(int[] output) {
+        int count = 0;
+        while (this.advance()) {
+            int offset = count << 1;
+            if (offset + 1 < output.length) {
+                output[offset] = bound[0];
+                output[offset + 1] = bound[1];
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 在指定范围内查找下一个位于code point边界上的分隔符
+     *
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @return 分隔符的起始位置，未找到返回-1
+     */
+    private int indexOf(int inputStartInclusive, int inputEndExclusive) {
+        int index = delimiter.indexOf(input, inputStartInclusive, inputEndExclusive);
+        if (checkBoundary) {
+            int delimiterLength = delimiter.getTarget().length();
+            while (index >= 0 && !(this.isBoundary(index) && this.isBoundary(index + delimiterLength))) {
+                index = delimiter.indexOf(input, index + 1, inputEndExclusive);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 判断位置是否位于code point边界上，即没有拆开代理对
+     *
+     * @param index 位置
+     * @return 位于边界上返回true，否则返回false
+     */
+    private boolean isBoundary(int index) {
+        return index == 0 || index >= input.length() || !Character.isHighSurrogate(input.charAt(index - 1)) || !Character.isLowSurrogate(input.charAt(index));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (action == null) {
+            throw new NullPointerException();
+        }
+        if (!this.advance()) {
+            return false;
+        }
+        action.accept(bound[0] < bound[1] ? input.subSequence(bound[0], bound[1]).toString() : UniversalString.EMPTY_STRING);
+        return true;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (done || delimiter == null || limit - position < MIN_SPLIT_LENGTH) {
+            return null;
+        }
+        int delimiterLength = delimiter.getTarget().length();
+        int middle = position + ((limit - position) >>> 1);
+        for (int index = this.indexOf(middle, limit); index >= 0; index = this.indexOf(index + 1, limit)) {
+            // 前面存在与该分隔符重叠的匹配时，顺序分割不一定选中该分隔符，继续查找下一个
+            int overlapStart = Math.max(position, index - delimiterLength + 1);
+            if (delimiterLength > 1 && overlapStart < index && delimiter.indexOf(input, overlapStart, index + delimiterLength - 1) >= 0) {
+                continue;
+            }
+            SplitSpliterator prefix = new SplitSpliterator(input, delimiter, elementPrefix, elementSuffix, trimCondition, retainEmpty, position, index, false);
+            position = index + delimiterLength;
+            return prefix;
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        // 剩余的字符数量是元素数量的上限
+        return done ? 0 : limit - position + 1;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.zhitron.universal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.function.IntFunction;
+
+/**
+ * 以流的方式从Reader读取、替换后写入Writer，只使用固定大小的缓冲区
+ * <p>
+ * 缓冲区容量为默认缓冲区大小加上最长目标长度。查找仍由内存中的查找引擎完成，
+ * 只有当匹配之后还有至少一个最长目标长度的已读内容（或已读到末尾）时才确认匹配，
+ * 因此跨越缓冲区边界的匹配与内存中的方法得到的结果完全一致。
+ * </p>
+ *
+ * @author zhitron
+ */
+final class StreamReplacer {
+    /**
+     * 默认缓冲区大小
+     */
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private StreamReplacer() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * 从Reader读取全部内容，替换匹配到的目标后写入Writer，不会关闭Reader和Writer
+     *
+     * @param reader          输入
+     * @param writer          输出
+     * @param maxTargetLength 最长目标长度，必须大于0
+     * @param finder          在缓冲区指定范围内查找下一个匹配的查找器
+     * @param replacements    根据目标下标获取替换字符串，返回null时表示删除目标
+     * @param replaceCount    替换次数（-1表示全部替换）
+     * @return 实际替换的次数
+     * @throws IOException 读取或写入失败时抛出
+     */
+    static long replace(Reader reader, Writer writer, int maxTargetLength, Finder finder, IntFunction<? extends CharSequence> replacements, long replaceCount) throws IOException {
+        char[] buffer = new char[DEFAULT_BUFFER_SIZE + maxTargetLength];
+        CharSequence sequence = CharBuffer.wrap(buffer);
+        int[] match = new int[3];
+        int position = 0, filled = 0;
+        long count = 0;
+        boolean eof = false;
+        while (replaceCount < 0 || count < replaceCount) {
+            if (!finder.find(sequence, position, filled, match)) {
+                if (eof) {
+                    break;
+                }
+                // 未找到匹配时，最后不足一个目标长度的内容可能是下一个匹配的开头，需要保留
+                position = StreamReplacer.flush(writer, buffer, position, filled - maxTargetLength + 1);
+            } else if (eof || match[0] + maxTargetLength <= filled) {
+                // 匹配之后已有足够的内容，不会再出现起始位置更靠左或更长的匹配，可以确认
+                writer.write(buffer, position, match[0] - position);
+                CharSequence replacement = replacements.apply(match[2]);
+                if (replacement != null) {
+                    writer.append(replacement);
+                }
+                position = match[1];
+                count++;
+                continue;
+            } else {
+                // 匹配尚未确认，只能输出确定不属于任何匹配的内容
+                position = StreamReplacer.flush(writer, buffer, position, Math.min(match[0], filled - maxTargetLength + 1));
+            }
+            // 将未处理的内容移到缓冲区开头，再读取后续内容
+            System.arraycopy(buffer, position, buffer, 0, filled - position);
+            filled -= position;
+            position = 0;
+            finder.reset();
+            int read = reader.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+            }
+        }
+        // 输出剩余内容，达到替换次数上限时剩余的输入原样复制
+        writer.write(buffer, position, filled - position);
+        if (!eof) {
+            StreamReplacer.copy(reader, writer, buffer);
+        }
+        return count;
+    }
+
+    /**
+     * 将Reader的剩余内容原样复制到Writer，不会关闭Reader和Writer
+     *
+     * @param reader 输入
+     * @param writer 输出
+     * @param buffer 复制时使用的缓冲区
+     * @throws IOException 读取或写入失败时抛出
+     */
+    static void copy(Reader reader, Writer writer, char[] buffer) throws IOException {
+        for (int read; (read = reader.read(buffer)) >= 0; ) {
+            writer.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * 输出缓冲区中从position到end的内容
+     *
+     * @param writer   输出
+     * @param buffer   缓冲区
+     * @param position 起始位置（包含）
+     * @param end      结束位置（不包含），小于position时不输出
+     * @return 新的起始位置
+     * @throws IOException 写入失败时抛出
+     */
+    private static int flush(Writer writer, char[] buffer, int position, int end) throws IOException {
+        if (end <= position) {
+            return position;
+        }
+        writer.write(buffer, position, end - position);
+        return end;
+    }
+
+    /**
+     * 在缓冲区指定范围内查找下一个匹配的查找器
+     */
+    @FunctionalInterface
+    interface Finder {
+        /**
+         * 在输入字符序列的指定范围内查找下一个最左的匹配
+         *
+         * @param input               输入字符序列
+         * @param inputStartInclusive 起始查找位置（包含）
+         * @param inputEndExclusive   结束查找位置（不包含）
+         * @param match               用于接收匹配结果的数组，格式为[起始位置, 结束位置, 目标下标]
+         * @return 找到匹配返回true，否则返回false
+         */
+        boolean find(CharSequence input, int inputStartInclusive, int inputEndExclusive, int[] match);
+
+        /**
+         * 缓冲区中的内容移动后调用，有状态的查找器需要丢弃基于旧内容的缓存
+         */
+        default void reset() {
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.github.zhitron.universal;
+
+import java.util.Arrays;
+
+/**
+ * 基于基本类型的子串查找引擎，直接在CharSequence、char[]、int[]上执行KMP算法，
+ * 避免装箱以及比较器lambda的分派开销；CharSequence另外提供首字符扫描和Horspool算法，由{@link SearchPattern}按需选择
+ *
+ * @author zhitron
+ */
+final class StringSearcher {
+    /**
+     * ASCII字符的小写折叠表
+     */
+    private static final char[] ASCII_LOWER_CASE = new char[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_LOWER_CASE[c] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+    }
+
+    private StringSearcher() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * 生成目标字符序列的KMP失配表
+     * <p>
+     * 返回数组长度为targetLength + 1，next[k]表示target[0, k)最长真前后缀的长度，next[0]固定为-1，
+     * next[targetLength]用于完整匹配后继续查找重叠匹配。忽略大小写时目标需已通过{@link #foldCase(boolean, CharSequence)}折叠。
+     * </p>
+     *
+     * @param target 目标字符序列
+     * @return KMP失配表
+     */
+    static int[] generateNext(CharSequence target) {
+        int length = target.length();
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || target.charAt(i) == target.charAt(j)) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 生成目标字符数组的KMP失配表
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符数组
+     * @return KMP失配表
+     * @see #generateNext(CharSequence)
+     */
+    static int[] generateNext(boolean ignoreCase, char[] target) {
+        int length = target.length;
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, target[i], target[j])) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 生成目标整数数组的KMP失配表
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标整数数组
+     * @return KMP失配表
+     * @see #generateNext(CharSequence)
+     */
+    static int[] generateNext(boolean ignoreCase, int[] target) {
+        int length = target.length;
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, target[i], target[j])) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 在输入字符序列的指定范围内查找目标字符序列的首次出现位置
+     * <p>
+     * 调用方需保证范围合法且目标非空。
+     * </p>
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @param next                目标字符序列的KMP失配表
+     * @return 首次出现的位置，未找到返回-1
+     */
+    static int indexOf(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target, int[] next) {
+        int targetLength = target.length();
+        for (int i = inputStartInclusive, j = 0; i < inputEndExclusive; ) {
+            if (j == -1 || StringSearcher.fold(ignoreCase, input.charAt(i)) == target.charAt(j)) {
+                i++;
+                if (++j == targetLength) {
+                    return i - targetLength;
+                }
+            } else {
+                j = next[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 生成目标字符序列的反向KMP失配表，即目标字符序列反转之后的失配表，用于从后向前查找
+     *
+     * @param target 目标字符序列，忽略大小写时需已折叠
+     * @return 反向KMP失配表
+     */
+    static int[] generateReverseNext(CharSequence target) {
+        int length = target.length();
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || target.charAt(length - 1 - i) == target.charAt(length - 1 - j)) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 生成目标字符数组的反向KMP失配表
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符数组
+     * @return 反向KMP失配表
+     * @see #generateReverseNext(CharSequence)
+     */
+    static int[] generateReverseNext(boolean ignoreCase, char[] target) {
+        int length = target.length;
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, target[length - 1 - i], target[length - 1 - j])) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 生成目标整数数组的反向KMP失配表
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标整数数组
+     * @return 反向KMP失配表
+     * @see #generateReverseNext(CharSequence)
+     */
+    static int[] generateReverseNext(boolean ignoreCase, int[] target) {
+        int length = target.length;
+        int[] next = new int[length + 1];
+        next[0] = -1;
+        for (int i = 0, j = -1; i < length; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, target[length - 1 - i], target[length - 1 - j])) {
+                next[++i] = ++j;
+            } else {
+                j = next[j];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 生成目标字符序列的Horspool坏字符跳跃表
+     * <p>
+     * 跳跃表按字符的低8位分桶，同一个桶内取最小的跳跃距离，因此对任意字符都是安全的。
+     * </p>
+     *
+     * @param target 目标字符序列，忽略大小写时需已折叠
+     * @return 长度为256的跳跃表
+     */
+    static int[] generateShift(CharSequence target) {
+        int length = target.length();
+        int[] shift = new int[256];
+        Arrays.fill(shift, length);
+        // 越靠后的字符跳跃距离越小，顺序覆盖即可得到每个桶的最小值
+        for (int i = 0; i < length - 1; i++) {
+            shift[target.charAt(i) & 0xFF] = length - 1 - i;
+        }
+        return shift;
+    }
+
+    /**
+     * 使用首字符扫描在输入字符序列的指定范围内查找目标字符序列的首次出现位置
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @return 首次出现的位置，未找到返回-1
+     */
+    static int indexOfFirstChar(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target) {
+        int targetLength = target.length();
+        char first = target.charAt(0);
+        if (!ignoreCase && input instanceof String && target instanceof String && inputEndExclusive == input.length()) {
+            // 查找范围直到字符串末尾时，使用JDK内置的String.indexOf(int, int)查找首字符，该方法在较新的JDK上会被向量化
+            String string = (String) input;
+            for (int i = string.indexOf(first, inputStartInclusive), last = inputEndExclusive - targetLength; i >= 0 && i <= last; i = string.indexOf(first, i + 1)) {
+                if (string.regionMatches(i + 1, (String) target, 1, targetLength - 1)) {
+                    return i;
+                }
+            }
+            return UniversalString.NOT_FOUND;
+        }
+        for (int i = inputStartInclusive, last = inputEndExclusive - targetLength; i <= last; i++) {
+            if (StringSearcher.fold(ignoreCase, input.charAt(i)) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < targetLength && StringSearcher.fold(ignoreCase, input.charAt(i + j)) == target.charAt(j)) {
+                j++;
+            }
+            if (j == targetLength) {
+                return i;
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 使用首字符扫描在输入字符序列的指定范围内查找目标字符序列第n次出现的位置，各次出现互不重叠
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @param occurrence          要查找的出现次数(从1开始计数)
+     * @return 第n次出现的位置，未找到返回-1
+     */
+    static int indexOfFirstChar(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target, int occurrence) {
+        int index = UniversalString.NOT_FOUND;
+        for (int found = 0, start = inputStartInclusive; found < occurrence; found++, start = index + target.length()) {
+            index = StringSearcher.indexOfFirstChar(ignoreCase, input, start, inputEndExclusive, target);
+            if (index < 0) {
+                return UniversalString.NOT_FOUND;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 使用首字符扫描计算目标字符序列在输入字符序列指定范围内不重叠出现的次数
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始统计位置（包含）
+     * @param inputEndExclusive   结束统计位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @return 出现的次数
+     */
+    static int countOccurrencesFirstChar(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target) {
+        int count = 0;
+        for (int start = inputStartInclusive, index; (index = StringSearcher.indexOfFirstChar(ignoreCase, input, start, inputEndExclusive, target)) >= 0; start = index + target.length()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 使用Horspool算法在输入字符序列的指定范围内查找目标字符序列的首次出现位置
+     * <p>
+     * 字符比较次数超出线性预算时，从当前对齐位置切换为KMP继续查找，保证最坏情况下为线性时间。
+     * </p>
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @param shift               目标字符序列的坏字符跳跃表
+     * @param next                目标字符序列的KMP失配表
+     * @return 首次出现的位置，未找到返回-1
+     */
+    static int indexOfHorspool(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target, int[] shift, int[] next) {
+        int targetLength = target.length(), lastIndex = targetLength - 1;
+        long work = 0;
+        for (int i = inputStartInclusive, last = inputEndExclusive - targetLength; i <= last; ) {
+            int j = lastIndex;
+            while (j >= 0 && StringSearcher.fold(ignoreCase, input.charAt(i + j)) == target.charAt(j)) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            // 当前位置之前的对齐位置均已排除，可以安全地从当前位置开始使用KMP
+            work += targetLength - j;
+            if (work > 4L * (i - inputStartInclusive + targetLength)) {
+                return StringSearcher.indexOf(ignoreCase, input, i, inputEndExclusive, target, next);
+            }
+            i += shift[StringSearcher.fold(ignoreCase, input.charAt(i + lastIndex)) & 0xFF];
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 根据是否忽略大小写对字符进行折叠，ASCII字符查表，其它字符使用{@link Character#toLowerCase(char)}
+     * <p>
+     * 对任意两个字符a、b，fold(true, a) == fold(true, b)与{@link UniversalString#isEquals(boolean, int, int)}忽略大小写的结果一致。
+     * </p>
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param value      字符
+     * @return 折叠后的字符
+     */
+    static char fold(boolean ignoreCase, char value) {
+        if (!ignoreCase) {
+            return value;
+        }
+        return value < 128 ? ASCII_LOWER_CASE[value] : Character.toLowerCase(value);
+    }
+
+    /**
+     * 根据是否忽略大小写对目标字符序列进行折叠，忽略大小写时查找方法要求目标已经过折叠
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符序列
+     * @return 折叠后的字符串
+     */
+    static String foldCase(boolean ignoreCase, CharSequence target) {
+        if (!ignoreCase) {
+            return target.toString();
+        }
+        // 目标已经是折叠后的形式时直接使用，不创建新的字符串
+        int length = target.length(), i = 0;
+        while (i < length && StringSearcher.fold(true, target.charAt(i)) == target.charAt(i)) {
+            i++;
+        }
+        if (i == length) {
+            return target.toString();
+        }
+        char[] chars = new char[length];
+        for (i = 0; i < length; i++) {
+            chars[i] = StringSearcher.fold(true, target.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 在输入字符数组的指定范围内查找目标字符数组的首次出现位置
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符数组
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符数组
+     * @param next                目标字符数组的KMP失配表
+     * @return 首次出现的位置，未找到返回-1
+     */
+    static int indexOf(boolean ignoreCase, char[] input, int inputStartInclusive, int inputEndExclusive, char[] target, int[] next) {
+        int targetLength = target.length;
+        for (int i = inputStartInclusive, j = 0; i < inputEndExclusive; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, input[i], target[j])) {
+                i++;
+                if (++j == targetLength) {
+                    return i - targetLength;
+                }
+            } else {
+                j = next[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 在输入整数数组的指定范围内查找目标整数数组的首次出现位置
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入整数数组
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标整数数组
+     * @param next                目标整数数组的KMP失配表
+     * @return 首次出现的位置，未找到返回-1
+     */
+    static int indexOf(boolean ignoreCase, int[] input, int inputStartInclusive, int inputEndExclusive, int[] target, int[] next) {
+        int targetLength = target.length;
+        for (int i = inputStartInclusive, j = 0; i < inputEndExclusive; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, input[i], target[j])) {
+                i++;
+                if (++j == targetLength) {
+                    return i - targetLength;
+                }
+            } else {
+                j = next[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 在输入字符序列的指定范围内从后向前查找目标字符序列倒数第n次出现的位置，各次出现互不重叠
+     * <p>
+     * 从结束位置向前扫描，找到第occurrence次匹配后立即返回，耗时只与匹配位置到结束位置的距离有关。
+     * </p>
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符序列
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符序列，忽略大小写时需已折叠
+     * @param reverseNext         目标字符序列的反向KMP失配表
+     * @param occurrence          查找倒数第几次出现的位置(从1开始计数)
+     * @return 倒数第n次出现的位置，未找到返回-1
+     */
+    static int lastIndexOf(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target, int[] reverseNext, int occurrence) {
+        int targetLength = target.length(), found = 0;
+        for (int i = inputEndExclusive - 1, j = 0; i >= inputStartInclusive; ) {
+            if (j == -1 || StringSearcher.fold(ignoreCase, input.charAt(i)) == target.charAt(targetLength - 1 - j)) {
+                i--;
+                if (++j == targetLength) {
+                    if (++found == occurrence) {
+                        return i + 1;
+                    }
+                    // 以匹配的起始位置作为新的结束位置，重新从目标末尾开始比较
+                    j = 0;
+                }
+            } else {
+                j = reverseNext[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 在输入字符数组的指定范围内从后向前查找目标字符数组倒数第n次出现的位置，各次出现互不重叠
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符数组
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标字符数组
+     * @param reverseNext         目标字符数组的反向KMP失配表
+     * @param occurrence          查找倒数第几次出现的位置(从1开始计数)
+     * @return 倒数第n次出现的位置，未找到返回-1
+     * @see #lastIndexOf(boolean, CharSequence, int, int, CharSequence, int[], int)
+     */
+    static int lastIndexOf(boolean ignoreCase, char[] input, int inputStartInclusive, int inputEndExclusive, char[] target, int[] reverseNext, int occurrence) {
+        int targetLength = target.length, found = 0;
+        for (int i = inputEndExclusive - 1, j = 0; i >= inputStartInclusive; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, input[i], target[targetLength - 1 - j])) {
+                i--;
+                if (++j == targetLength) {
+                    if (++found == occurrence) {
+                        return i + 1;
+                    }
+                    j = 0;
+                }
+            } else {
+                j = reverseNext[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 在输入整数数组的指定范围内从后向前查找目标整数数组倒数第n次出现的位置，各次出现互不重叠
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入整数数组
+     * @param inputStartInclusive 起始查找位置（包含）
+     * @param inputEndExclusive   结束查找位置（不包含）
+     * @param target              目标整数数组
+     * @param reverseNext         目标整数数组的反向KMP失配表
+     * @param occurrence          查找倒数第几次出现的位置(从1开始计数)
+     * @return 倒数第n次出现的位置，未找到返回-1
+     * @see #lastIndexOf(boolean, CharSequence, int, int, CharSequence, int[], int)
+     */
+    static int lastIndexOf(boolean ignoreCase, int[] input, int inputStartInclusive, int inputEndExclusive, int[] target, int[] reverseNext, int occurrence) {
+        int targetLength = target.length, found = 0;
+        for (int i = inputEndExclusive - 1, j = 0; i >= inputStartInclusive; ) {
+            if (j == -1 || UniversalString.isEquals(ignoreCase, input[i], target[targetLength - 1 - j])) {
+                i--;
+                if (++j == targetLength) {
+                    if (++found == occurrence) {
+                        return i + 1;
+                    }
+                    j = 0;
+                }
+            } else {
+                j = reverseNext[j];
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.zhitron.universal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 基于SWAR（寄存器内SIMD）的扫描工具，每次读取一个long同时检查8个字节，
+ * 用于在UTF-8字节上快速查找首字节以及判断是否全部为ASCII字符
+ *
+ * @author zhitron
+ */
+final class SwarScanner {
+    /**
+     * 每个字节的低7位
+     */
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    /**
+     * 每个字节的最高位
+     */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    /**
+     * 将一个字节复制到long的每个字节上
+     */
+    private static final long REPEAT_BYTE = 0x0101010101010101L;
+
+    private SwarScanner() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * 在字节缓冲区的指定范围内查找指定字节的首次出现位置
+     *
+     * @param buffer        字节缓冲区，只使用绝对位置读取
+     * @param fromInclusive 起始位置（包含）
+     * @param toExclusive   结束位置（不包含）
+     * @param value         要查找的字节
+     * @return 首次出现的绝对位置，未找到返回-1
+     */
+    static int indexOf(ByteBuffer buffer, int fromInclusive, int toExclusive, byte value) {
+        long pattern = (value & 0xFFL) * REPEAT_BYTE;
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int i = fromInclusive;
+        for (int last = toExclusive - Long.BYTES; i <= last; i += Long.BYTES) {
+            // 与目标字节相同的字节异或后为0，再精确标记出值为0的字节（不会因借位产生误判）
+            long word = buffer.getLong(i) ^ pattern;
+            long zero = ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+            if (zero != 0) {
+                return i + ((bigEndian ? Long.numberOfLeadingZeros(zero) : Long.numberOfTrailingZeros(zero)) >>> 3);
+            }
+        }
+        for (; i < toExclusive; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 在字节缓冲区的指定范围内查找字节形式目标的首次出现位置，使用SWAR扫描首字节后再比较剩余字节
+     *
+     * @param buffer         字节缓冲区，只使用绝对位置读取
+     * @param fromInclusive  起始位置（包含）
+     * @param toExclusive    结束位置（不包含）
+     * @param target         字节形式的目标，每个字符对应一个字节，首字节不能是需要折叠的ASCII字母
+     * @param asciiLowerCase 比较剩余字节时是否将ASCII大写字母折叠为小写，此时目标中的ASCII字母需已是小写
+     * @return 首次出现的绝对位置，未找到返回-1
+     */
+    static int indexOf(ByteBuffer buffer, int fromInclusive, int toExclusive, String target, boolean asciiLowerCase) {
+        int targetLength = target.length(), last = toExclusive - targetLength;
+        byte first = (byte) target.charAt(0);
+        for (int i = SwarScanner.indexOf(buffer, fromInclusive, last + 1, first); i >= 0; i = SwarScanner.indexOf(buffer, i + 1, last + 1, first)) {
+            int j = 1;
+            while (j < targetLength) {
+                int value = buffer.get(i + j) & 0xFF;
+                if (asciiLowerCase && value >= 'A' && value <= 'Z') {
+                    value += 'a' - 'A';
+                }
+                if (value != target.charAt(j)) {
+                    break;
+                }
+                j++;
+            }
+            if (j == targetLength) {
+                return i;
+            }
+        }
+        return UniversalString.NOT_FOUND;
+    }
+
+    /**
+     * 检查字节缓冲区的指定范围内是否全部为ASCII字节
+     *
+     * @param buffer        字节缓冲区，只使用绝对位置读取
+     * @param fromInclusive 起始位置（包含）
+     * @param toExclusive   结束位置（不包含）
+     * @return 全部为ASCII字节返回true，否则返回false
+     */
+    static boolean isAscii(ByteBuffer buffer, int fromInclusive, int toExclusive) {
+        int i = fromInclusive;
+        for (int last = toExclusive - Long.BYTES; i <= last; i += Long.BYTES) {
+            if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < toExclusive; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
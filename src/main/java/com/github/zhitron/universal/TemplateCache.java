@@ -0,0 +1,266 @@
+package com.github.zhitron.universal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有容量上限的模板缓存，以模板字符串（格式化模板还包括占位符）为键保存解析后的模板，超出容量时淘汰近期未使用的模板
+ * <p>
+ * {@link UniversalString#format(CharSequence, CharSequence, Object...)}和
+ * {@link UniversalString#replacePlaceholder(String, Function, boolean)}
+ * 通过该缓存复用已解析的模板，调用方无需修改代码。缓存是线程安全的，模板保存在{@link ConcurrentHashMap}中，
+ * 命中时不加锁，只在模板上设置最近使用标记；未命中时才短暂加锁插入模板并淘汰多出的模板。
+ * 淘汰使用时钟（二次机会）算法近似LRU：按插入顺序检查模板，带有最近使用标记的模板清除标记后获得一次保留机会。
+ * 模板的解析在锁外进行，并发未命中时同一模板可能被解析多次，但只会保留一份。
+ * 容量为0时不缓存任何模板。
+ * </p>
+ *
+ * @param <V> 解析后的模板类型
+ * @author zhitron
+ * @see UniversalString#getFormatTemplateCache()
+ * @see UniversalString#getPlaceholderTemplateCache()
+ */
+public final class TemplateCache<V> {
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * 缓存项，命中时无锁读取
+     */
+    private final ConcurrentHashMap<Object, Node<V>> entries = new ConcurrentHashMap<>();
+    /**
+     * 按插入顺序排列的缓存项，用于时钟淘汰，只在持有该队列的锁时访问
+     */
+    private final ArrayDeque<Node<V>> clock = new ArrayDeque<>();
+    /**
+     * 命中次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+    /**
+     * 未命中次数
+     */
+    private final LongAdder missCount = new LongAdder();
+    /**
+     * 淘汰次数
+     */
+    private final LongAdder evictionCount = new LongAdder();
+    /**
+     * 容量上限
+     */
+    private volatile int capacity;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 容量上限
+     * @throws IllegalArgumentException 当容量为负数时抛出
+     */
+    public TemplateCache(int capacity) {
+        this.capacity = TemplateCache.checkCapacity(capacity);
+    }
+
+    /**
+     * 检查容量是否合法
+     *
+     * @param capacity 容量上限
+     * @return 容量上限
+     * @throws IllegalArgumentException 当容量为负数时抛出
+     */
+    private static int checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        return capacity;
+    }
+
+    /**
+     * 获取模板，未命中时使用loader解析并放入缓存
+     *
+     * @param key    模板字符串
+     * @param loader 解析模板的函数
+     * @return 解析后的模板
+     */
+    public V get(String key, Function<? super String, ? extends V> loader) {
+        return this.load(key, loader);
+    }
+
+    /**
+     * 获取模板，未命中时使用loader解析并放入缓存，键可以是由模板和解析参数组成的任意不可变对象
+     *
+     * @param key    键，需要正确实现equals和hashCode
+     * @param loader 解析模板的函数
+     * @param <K>    键的类型
+     * @return 解析后的模板
+     */
+    <K> V load(K key, Function<? super K, ? extends V> loader) {
+        if (capacity > 0) {
+            Node<V> node = entries.get(key);
+            if (node != null) {
+                // 已经标记时不再写入，避免并发命中时反复写同一缓存行
+                if (!node.recent) {
+                    node.recent = true;
+                }
+                hitCount.increment();
+                return node.value;
+            }
+        }
+        missCount.increment();
+        V value = loader.apply(key);
+        if (capacity > 0 && value != null) {
+            Node<V> node = new Node<>(key, value);
+            synchronized (clock) {
+                Node<V> existing = entries.putIfAbsent(key, node);
+                if (existing != null) {
+                    // 并发未命中时保留先放入的模板
+                    return existing.value;
+                }
+                clock.addLast(node);
+                this.evict();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使用时钟算法淘汰模板，直到数量不超过容量上限，调用时必须持有队列的锁
+     * <p>
+     * 带有最近使用标记的模板清除标记后移到队尾，转过一整圈仍未淘汰时直接淘汰队首的模板，保证循环结束。
+     * </p>
+     */
+    private void evict() {
+        int limit = capacity;
+        for (int scanned = 0; clock.size() > limit; scanned++) {
+            Node<V> node = clock.pollFirst();
+            if (node.recent && scanned < clock.size() + 1) {
+                node.recent = false;
+                clock.addLast(node);
+                continue;
+            }
+            entries.remove(node.key, node);
+            evictionCount.increment();
+            scanned = 0;
+        }
+    }
+
+    /**
+     * 获取容量上限
+     *
+     * @return 容量上限
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 设置容量上限，缩小容量时会立即淘汰多出的模板
+     *
+     * @param capacity 容量上限，为0时不缓存任何模板
+     * @throws IllegalArgumentException 当容量为负数时抛出
+     */
+    public void setCapacity(int capacity) {
+        synchronized (clock) {
+            this.capacity = TemplateCache.checkCapacity(capacity);
+            this.evict();
+        }
+    }
+
+    /**
+     * 获取当前缓存的模板数量
+     *
+     * @return 模板数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 移除所有缓存的模板，不重置统计数据
+     */
+    public void clear() {
+        synchronized (clock) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 重置命中、未命中和淘汰次数
+     */
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    /**
+     * 返回模板缓存的字符串表示形式
+     *
+     * @return 模板缓存的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "TemplateCache[size=" + this.size() + ", capacity=" + capacity + ", hit=" + this.getHitCount()
+                + ", miss=" + this.getMissCount() + ", eviction=" + this.getEvictionCount() + "]";
+    }
+
+    /**
+     * 缓存项
+     *
+     * @param <V> 解析后的模板类型
+     */
+    private static final class Node<V> {
+        /**
+         * 键
+         */
+        final Object key;
+        /**
+         * 解析后的模板
+         */
+        final V value;
+        /**
+         * 最近使用标记，命中时设置，淘汰检查时清除
+         */
+        volatile boolean recent;
+
+        /**
+         * 构造函数
+         *
+         * @param key   键
+         * @param value 解析后的模板
+         */
+        Node(Object key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.github.zhitron.universal;
 
-import com.github.zhitron.algorithm.KMP;
-
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.IntPredicate;
 import java.util.function.IntUnaryOperator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 通用字符串工具类，提供各种字符串操作的静态方法
@@ -30,9 +32,13 @@ public class UniversalString {
      */
     public static final String[] EMPTY_STRING_ARRAY = new String[0];
     /**
-     * 占位符匹配模式，用于匹配形如${...}的占位符，其中不包含{、}或$字符
+     * 格式化模板缓存，用于复用format解析后的模板
+     */
+    private static final TemplateCache<FormatTemplate> FORMAT_TEMPLATE_CACHE = new TemplateCache<>(TemplateCache.DEFAULT_CAPACITY);
+    /**
+     * 占位符模板缓存，用于复用replacePlaceholder解析后的模板
      */
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{[^{}$]+}");
+    private static final TemplateCache<PlaceholderTemplate> PLACEHOLDER_TEMPLATE_CACHE = new TemplateCache<>(TemplateCache.DEFAULT_CAPACITY);
 
     private UniversalString() {
         throw new AssertionError("No instances.");
@@ -149,6 +155,34 @@ public class UniversalString {
         return input < 128;
     }
 
+    /**
+     * 检查字符序列是否全部由ASCII字符组成，遇到第一个非ASCII字符时立即返回
+     *
+     * @param input 要检查的字符序列
+     * @return 全部为ASCII字符返回true，null或空字符序列返回false
+     */
+    public static boolean isAscii(CharSequence input) {
+        if (input == null || input.length() == 0) {
+            return false;
+        }
+        for (int i = 0, length = input.length(); i < length; i++) {
+            if (input.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查字节缓冲区的剩余字节（position到limit）是否全部为ASCII字节，使用SWAR每次检查8个字节，不修改缓冲区的position
+     *
+     * @param input 要检查的字节缓冲区
+     * @return 全部为ASCII字节返回true，null或没有剩余字节返回false
+     */
+    public static boolean isAscii(ByteBuffer input) {
+        return input != null && input.hasRemaining() && SwarScanner.isAscii(input, input.position(), input.limit());
+    }
+
     /**
      * 是否为可见ASCII字符，可见字符位于32~126之间
      *
@@ -433,6 +467,9 @@ public class UniversalString {
 
     /**
      * 检查输入的字符序列是否包含所有指定的目标字符序列
+     * <p>
+     * 每次调用都会构建多目标自动机，需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
      *
      * @param ignoreCase 是否忽略大小写
      * @param input      要检查的字符序列
@@ -443,17 +480,20 @@ public class UniversalString {
         if (target == null || target.length == 0 || input == null || input.length() == 0) {
             return false;
         }
-        // 检查每个目标字符序列是否都包含在input中
         for (CharSequence ele : target) {
-            if (ele == null || ele.length() == 0 || UniversalString.indexOf(ignoreCase, input, 0, input.length(), ele) < 0) {
+            if (ele == null || ele.length() == 0) {
                 return false;
             }
         }
-        return true;
+        // 一次扫描检查所有目标字符序列，全部出现后立即返回
+        return MultiSearchPattern.of(ignoreCase, target).isContainAll(input);
     }
 
     /**
      * 检查输入的字符序列是否包含任意一个指定的目标字符序列
+     * <p>
+     * 每次调用都会构建多目标自动机，需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
      *
      * @param ignoreCase 是否忽略大小写
      * @param input      要检查的字符序列
@@ -464,13 +504,13 @@ public class UniversalString {
         if (target == null || target.length == 0 || input == null || input.length() == 0) {
             return false;
         }
-        // 检查每个目标字符序列是否都包含在input中
         for (CharSequence ele : target) {
-            if (ele == null || ele.length() == 0 || UniversalString.indexOf(ignoreCase, input, 0, input.length(), ele) >= 0) {
+            if (ele == null || ele.length() == 0) {
                 return true;
             }
         }
-        return false;
+        // 一次扫描检查所有目标字符序列，首次匹配时立即返回
+        return MultiSearchPattern.of(ignoreCase, target).isContainAny(input);
     }
 
     /**
@@ -889,22 +929,10 @@ public class UniversalString {
         if (input instanceof String && target instanceof String) {
             return ((String) input).regionMatches(ignoreCase, inputOffset, (String) target, targetOffset, count);
         }
-        // 逐个比较字符
+        // 逐个比较字符，直接读取原字符序列，只访问指定区域内的字符
         for (int i = 0; i < count; i++) {
-            int inputIndex = inputOffset + i;
-            int targetIndex = targetOffset + i;
-            // 获取code point
-            int inputCodePoint = Character.codePointAt(input, inputIndex);
-            int targetCodePoint = Character.codePointAt(target, targetIndex);
-            // 处理代理对
-            if (ignoreCase) {
-                if (Character.toLowerCase(inputCodePoint) != Character.toLowerCase(targetCodePoint)) {
-                    return false;
-                }
-            } else {
-                if (inputCodePoint != targetCodePoint) {
-                    return false;
-                }
+            if (!UniversalString.isEquals(ignoreCase, input.charAt(inputOffset + i), target.charAt(targetOffset + i))) {
+                return false;
             }
         }
         return true;
@@ -1015,6 +1043,42 @@ public class UniversalString {
         return UniversalString.calculateTrimBounds(input, isTrimLeading ? trimCondition : null, isTrimTrailing ? trimCondition : null);
     }
 
+    /**
+     * 计算需要修剪的边界索引，使用code point集合作为修剪条件
+     * <p>
+     * 与接受{@link IntPredicate}的重载结果一致，但内层循环直接查表判断，不会产生多态调用。
+     * </p>
+     *
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否修剪开头
+     * @param isTrimTrailing 是否修剪结尾
+     * @param trimCondition  需要被修剪的code point集合，为null时表示不修剪
+     * @return 包含起始和结束位置的数组，格式为[起始位置startInclusive, 结束位置endExclusive]
+     */
+    public static IndexBounds calculateTrimBounds(CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, CodePointClass trimCondition) {
+        int startInclusive = 0, endExclusive = input.length();
+        if (trimCondition == null) {
+            return new IndexBounds(startInclusive, endExclusive);
+        }
+        // 去除开头满足条件的code point
+        while (isTrimLeading && startInclusive < endExclusive) {
+            int value = Character.codePointAt(input, startInclusive);
+            if (!trimCondition.test(value)) {
+                break;
+            }
+            startInclusive += Character.charCount(value);
+        }
+        // 去除结尾满足条件的code point，与谓词版本一样从结束位置前一个字符开始读取
+        while (isTrimTrailing && startInclusive < endExclusive) {
+            int value = Character.codePointAt(input, endExclusive - 1);
+            if (!trimCondition.test(value)) {
+                break;
+            }
+            endExclusive -= Character.charCount(value);
+        }
+        return new IndexBounds(startInclusive, endExclusive);
+    }
+
     /**
      * 计算需要修剪的边界索引，使用指定的修剪条件
      *
@@ -1110,8 +1174,8 @@ public class UniversalString {
                     tag = tag & 0b10;
                 }
             }
-            // 如果需要处理结尾（tag的第二位为1）
-            if (trimTrailingSkipper != null && (tag & 0b10) == 0b10) {
+            // 如果需要处理结尾（tag的第二位为1），开头已经修剪到结束位置时不再处理，避免起始位置越过结束位置
+            if (trimTrailingSkipper != null && (tag & 0b10) == 0b10 && bound[0] < bound[1]) {
                 // 使用trimSkipper判断结束位置前一个字符是否需要跳过
                 i = trimTrailingSkipper.applyAsInt(bound[1] - 1);
                 if (i > 0) {
@@ -1147,6 +1211,32 @@ public class UniversalString {
         return UniversalString.asCharacters(input, trimCondition, trimCondition, null, null);
     }
 
+    /**
+     * 将字符序列解析为字符数组，使用code point集合去除首尾字符
+     *
+     * @param input         待解析的字符序列
+     * @param trimCondition 前导和尾部需要去除的code point集合，为null时表示不过滤
+     * @return 解析后的字符数组，如果输入字符序列为空或仅包含被过滤的字符，则返回空数组
+     */
+    public static char[] asCharacters(CharSequence input, CodePointClass trimCondition) {
+        if (input == null || input.length() == 0) {
+            return UniversalConstant.EMPTY_CHAR_ARRAY;
+        }
+        IndexBounds bounds = UniversalString.calculateTrimBounds(input, true, true, trimCondition);
+        if (bounds.isEmpty()) {
+            return UniversalConstant.EMPTY_CHAR_ARRAY;
+        }
+        int startInclusive = bounds.getStartInclusive(), endExclusive = bounds.getEndExclusive();
+        if (input instanceof String) {
+            return ((String) input).substring(startInclusive, endExclusive).toCharArray();
+        }
+        char[] array = new char[endExclusive - startInclusive];
+        for (int i = startInclusive; i < endExclusive; i++) {
+            array[i - startInclusive] = input.charAt(i);
+        }
+        return array;
+    }
+
     /**
      * 将字符序列解析为字符数组，支持去除首尾空白字符和字符替换
      *
@@ -1368,6 +1458,76 @@ public class UniversalString {
         return codepoints;
     }
 
+    /**
+     * 将目标字符序列编译为可重复使用的查找模式，失配表只生成一次
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符序列
+     * @return 查找模式
+     * @throws IllegalArgumentException 当目标字符序列为null或空时抛出
+     */
+    public static SearchPattern compile(boolean ignoreCase, CharSequence target) {
+        return SearchPattern.of(ignoreCase, target);
+    }
+
+    /**
+     * 将多个目标字符序列编译为可重复使用的多目标查找模式，null和空字符串会被忽略
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param targets    目标字符序列数组
+     * @return 多目标查找模式
+     */
+    public static MultiSearchPattern compileMulti(boolean ignoreCase, CharSequence... targets) {
+        return MultiSearchPattern.of(ignoreCase, targets);
+    }
+
+    /**
+     * 将目标字符序列编译为近似查找模式，用于查找与目标的编辑距离不超过k的子串
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param target     目标字符序列
+     * @param ignored    用于判断code point是否被忽略的谓词，为null时不忽略任何code point
+     * @return 近似查找模式
+     * @throws IllegalArgumentException 当目标为null、为空或全部由被忽略的code point组成时抛出
+     */
+    public static ApproximatePattern compileApproximate(boolean ignoreCase, CharSequence target, IntPredicate ignored) {
+        return ApproximatePattern.of(ignoreCase, target, ignored);
+    }
+
+    /**
+     * 将目标字符串到替换字符串的映射编译为可重复使用的替换模式，一次扫描完成所有替换
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param replacements 目标字符串到替换字符串的映射，键为null或空字符串的映射会被忽略，值为null时删除目标
+     * @return 替换模式
+     */
+    public static ReplacePattern compileReplace(boolean ignoreCase, Map<? extends CharSequence, ? extends CharSequence> replacements) {
+        return ReplacePattern.of(ignoreCase, replacements);
+    }
+
+    /**
+     * 将格式化模板编译为可重复使用的格式化模板，占位符位置和转义只解析一次
+     *
+     * @param template    字符串模板
+     * @param placeHolder 占位符，例如{}
+     * @return 格式化模板
+     * @see #format(CharSequence, CharSequence, Object...)
+     */
+    public static FormatTemplate compileFormat(CharSequence template, CharSequence placeHolder) {
+        return FormatTemplate.of(template, placeHolder);
+    }
+
+    /**
+     * 将包含${...}占位符的模板编译为可重复使用的占位符模板，模板只扫描一次
+     *
+     * @param template 包含${...}占位符的模板字符串
+     * @return 占位符模板
+     * @see #replacePlaceholder(String, Function, boolean)
+     */
+    public static PlaceholderTemplate compilePlaceholder(String template) {
+        return PlaceholderTemplate.of(template);
+    }
+
     /**
      * 计算目标字符串在输入字符串中出现的次数
      *
@@ -1384,16 +1544,34 @@ public class UniversalString {
         if (inputLength == 0 || targetLength == 0 || targetLength > inputLength) {
             return 0;
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        KMP<Character> kmp = KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te));
-        int count = 0;
-        int idx = 0;
-        while ((idx = kmp.indexOf(idx)) != -1) {
-            ++count;
-            idx += targetChars.length;
+        if (SearchPattern.isFirstCharOnly(targetLength, inputLength)) {
+            return StringSearcher.countOccurrencesFirstChar(ignoreCase, input, 0, inputLength, StringSearcher.foldCase(ignoreCase, target));
+        }
+        return new SearchPattern(ignoreCase, target.toString()).countOccurrences(input);
+    }
+
+    /**
+     * 计算目标字符串在输入字符串指定范围内不重叠出现的次数，只读取指定范围内的字符
+     *
+     * @param ignoreCase          是否忽略大小写
+     * @param input               输入字符串
+     * @param inputStartInclusive 开始统计位置（包含）
+     * @param inputEndExclusive   结束统计位置（不包含）
+     * @param target              目标字符串
+     * @return 目标字符串在指定范围内出现的次数
+     */
+    public static int countOccurrences(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target) {
+        if (input == null || target == null) {
+            return 0;
+        }
+        int inputLength = input.length(), targetLength = target.length();
+        if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
+            return 0;
+        }
+        if (SearchPattern.isFirstCharOnly(targetLength, inputEndExclusive - inputStartInclusive)) {
+            return StringSearcher.countOccurrencesFirstChar(ignoreCase, input, inputStartInclusive, inputEndExclusive, StringSearcher.foldCase(ignoreCase, target));
         }
-        return count;
+        return new SearchPattern(ignoreCase, target.toString()).countOccurrences(input, inputStartInclusive, inputEndExclusive);
     }
 
     /**
@@ -1408,22 +1586,17 @@ public class UniversalString {
      * @return 目标字符串第n次出现的起始位置，如果未找到则返回-1
      */
     public static int indexOf(boolean ignoreCase, CharSequence input, int inputStartInclusive, int inputEndExclusive, CharSequence target, int occurrence) {
-        if (input == null || target == null) {
+        if (input == null || target == null || occurrence <= 0) {
             return NOT_FOUND;
         }
         int inputLength = input.length(), targetLength = target.length();
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        KMP<Character> kmp = KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te));
-        int start = inputStartInclusive, index = 0;
-        // 循环查找目标字符串，直到找到第occurrence次出现或找不到为止
-        for (int found = 0; found < occurrence && index >= 0; found++, start += targetLength) {
-            index = kmp.indexOf(start, inputEndExclusive);
+        if (SearchPattern.isFirstCharOnly(targetLength, inputEndExclusive - inputStartInclusive)) {
+            return StringSearcher.indexOfFirstChar(ignoreCase, input, inputStartInclusive, inputEndExclusive, StringSearcher.foldCase(ignoreCase, target), occurrence);
         }
-        return index;
+        return new SearchPattern(ignoreCase, target.toString()).indexOf(input, inputStartInclusive, inputEndExclusive, occurrence);
     }
 
     /**
@@ -1444,9 +1617,10 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        return KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).indexOf(inputStartInclusive, inputEndExclusive);
+        if (SearchPattern.isFirstCharOnly(targetLength, inputEndExclusive - inputStartInclusive)) {
+            return StringSearcher.indexOfFirstChar(ignoreCase, input, inputStartInclusive, inputEndExclusive, StringSearcher.foldCase(ignoreCase, target));
+        }
+        return new SearchPattern(ignoreCase, target.toString()).indexOf(input, inputStartInclusive, inputEndExclusive);
     }
 
     /**
@@ -1467,7 +1641,7 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        return KMP.of(input, target).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).indexOf(inputStartInclusive, inputEndExclusive);
+        return StringSearcher.indexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, target, StringSearcher.generateNext(ignoreCase, target));
     }
 
     /**
@@ -1488,7 +1662,7 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        return KMP.of(input, target).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).indexOf(inputStartInclusive, inputEndExclusive);
+        return StringSearcher.indexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, target, StringSearcher.generateNext(ignoreCase, target));
     }
 
     /**
@@ -1510,15 +1684,9 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        KMP<Character> kmp = KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te));
-        int index = inputEndExclusive;
-        // 循环查找目标字符串，直到找到第occurrence次出现的位置
-        for (int found = 0; found < occurrence && index >= 0; found++) {
-            index = kmp.lastIndexOf(inputStartInclusive, index);
-        }
-        return index;
+        // 反向查找只需要反向失配表，直接生成而不创建查找模式
+        String foldedTarget = StringSearcher.foldCase(ignoreCase, target);
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, StringSearcher.generateReverseNext(foldedTarget), occurrence);
     }
 
     /**
@@ -1539,9 +1707,9 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        return KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).lastIndexOf(inputStartInclusive, inputEndExclusive);
+        // 反向查找只需要反向失配表，直接生成而不创建查找模式
+        String foldedTarget = StringSearcher.foldCase(ignoreCase, target);
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, foldedTarget, StringSearcher.generateReverseNext(foldedTarget), 1);
     }
 
     /**
@@ -1562,7 +1730,7 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        return KMP.of(input, target).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).lastIndexOf(inputStartInclusive, inputEndExclusive - targetLength);
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, target, StringSearcher.generateReverseNext(ignoreCase, target), 1);
     }
 
     /**
@@ -1583,7 +1751,7 @@ public class UniversalString {
         if (!UniversalString.isValidateByIndex(inputStartInclusive, inputEndExclusive, inputLength, 0, targetLength, targetLength)) {
             return NOT_FOUND;
         }
-        return KMP.of(input, target).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te)).lastIndexOf(inputStartInclusive, inputEndExclusive - targetLength);
+        return StringSearcher.lastIndexOf(ignoreCase, input, inputStartInclusive, inputEndExclusive, target, StringSearcher.generateReverseNext(ignoreCase, target), 1);
     }
 
     /**
@@ -1610,17 +1778,70 @@ public class UniversalString {
             return input.toString();
         }
         // 构造结果字符串
-        StringBuilder sb = new StringBuilder(leadingLength + briefLength + trailingLength);
+        return UniversalString.briefTo(new StringBuilder(leadingLength + briefLength + trailingLength), input, briefChar, briefLength, leadingLength, trailingLength).toString();
+    }
+
+    /**
+     * 将给定字符串变成 "xxx...xxx" 形式后追加到StringBuilder中
+     *
+     * @param output         输出
+     * @param input          原始字符串
+     * @param briefChar      省略符字符
+     * @param briefLength    省略符的长度
+     * @param leadingLength  前缀保留长度
+     * @param trailingLength 后缀保留长度
+     * @return 输出
+     * @see #brief(CharSequence, char, int, int, int)
+     */
+    public static StringBuilder briefTo(StringBuilder output, CharSequence input, char briefChar, int briefLength, int leadingLength, int trailingLength) {
+        try {
+            UniversalString.briefTo((Appendable) output, input, briefChar, briefLength, leadingLength, trailingLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 将给定字符串变成 "xxx...xxx" 形式后追加到输出中，不创建中间字符串
+     *
+     * @param output         输出
+     * @param input          原始字符串
+     * @param briefChar      省略符字符
+     * @param briefLength    省略符的长度
+     * @param leadingLength  前缀保留长度
+     * @param trailingLength 后缀保留长度
+     * @param <A>            输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null或长度参数为负数时抛出
+     * @see #brief(CharSequence, char, int, int, int)
+     */
+    public static <A extends Appendable> A briefTo(A output, CharSequence input, char briefChar, int briefLength, int leadingLength, int trailingLength) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null) {
+            return output;
+        }
+        // 参数合法性校验
+        if (briefLength < 0 || leadingLength < 0 || trailingLength < 0) {
+            throw new IllegalArgumentException("Length parameters must be non-negative.");
+        }
+        int inputLength = input.length();
+        // 如果前后缀长度之和已经大于等于原字符串长度，则直接追加原字符串
+        if (leadingLength + trailingLength >= inputLength) {
+            output.append(input);
+            return output;
+        }
         if (leadingLength > 0) {
-            sb.append(input, 0, leadingLength);
+            output.append(input, 0, leadingLength);
         }
         for (int i = 0; i < briefLength; i++) {
-            sb.append(briefChar);
+            output.append(briefChar);
         }
         if (trailingLength > 0) {
-            sb.append(input, inputLength - trailingLength, inputLength);
+            output.append(input, inputLength - trailingLength, inputLength);
         }
-        return sb.toString();
+        return output;
     }
 
     /**
@@ -1636,18 +1857,18 @@ public class UniversalString {
             return EMPTY_STRING;
         }
 
-        // 创建StringBuilder并获取首字符
-        StringBuilder sb = new StringBuilder(input);
-        char firstChar = sb.charAt(0);
-
-        // 判断首字符是否为字母，如果是则根据参数决定大小写转换
-        if (Character.isLetter(firstChar)) {
-            if (capitalize) {
-                sb.setCharAt(0, Character.toUpperCase(firstChar));
-            } else {
-                sb.setCharAt(0, Character.toLowerCase(firstChar));
-            }
+        // 获取首字符，判断首字符是否为字母，如果是则根据参数决定大小写转换
+        char firstChar = input.charAt(0);
+        if (!Character.isLetter(firstChar)) {
+            return input.toString();
+        }
+        char convertedChar = capitalize ? Character.toUpperCase(firstChar) : Character.toLowerCase(firstChar);
+        // 首字符不需要转换时直接返回原字符串，不创建新的字符串
+        if (convertedChar == firstChar) {
+            return input.toString();
         }
+        StringBuilder sb = new StringBuilder(input);
+        sb.setCharAt(0, convertedChar);
         return sb.toString();
     }
 
@@ -1711,6 +1932,10 @@ public class UniversalString {
 
     /**
      * 清理字符序列中的指定内容
+     * <p>
+     * 输入短于64个字符且不包含任何目标时直接返回原字符串，不构建多目标自动机；其它情况每次调用都会构建自动机，
+     * 需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
      *
      * @param ignoreCase 是否忽略大小写
      * @param input      要清理的字符序列
@@ -1722,52 +1947,83 @@ public class UniversalString {
         if (input == null || input.length() == 0) {
             return EMPTY_STRING;
         }
-        if (targets == null || targets.length == 0) {
+        if (targets == null || targets.length == 0 || !UniversalString.isAnyPossiblyFound(ignoreCase, input, targets)) {
             return input.toString();
         }
-        // 将输入字符串转换为char数组，只需一次转换
-        char[] inputChars = UniversalString.asCharacters(input);
-        // 过滤掉空的目标字符串，并转换为char数组
-        List<char[]> targetCharsList = Arrays.stream(targets)
-                .filter(Objects::nonNull)
-                .filter(e -> e.length() > 0)
-                .sorted((a, b) -> Integer.compare(b.length(), a.length()))
-                .map(UniversalString::asCharacters)
-                .collect(Collectors.toCollection(LinkedList::new));
-        if (targetCharsList.isEmpty()) {
-            return input.toString();
+        // 使用多目标自动机一次扫描移除所有目标，同一位置优先移除最长的目标
+        return MultiSearchPattern.of(ignoreCase, targets).clean(input);
+    }
+
+    /**
+     * 清理字符序列中的指定内容后追加到StringBuilder中
+     * <p>
+     * 输入短于64个字符且不包含任何目标时不构建多目标自动机，其它情况每次调用都会构建，
+     * 需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param output     输出
+     * @param input      要清理的字符序列
+     * @param targets    要移除的目标字符串数组
+     * @return 输出
+     * @see #clean(boolean, CharSequence, CharSequence...)
+     */
+    public static StringBuilder cleanTo(boolean ignoreCase, StringBuilder output, CharSequence input, CharSequence... targets) {
+        try {
+            UniversalString.cleanTo(ignoreCase, (Appendable) output, input, targets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        // 创建KMP算法实例列表
-        List<KMP<Character>> kmpList = new LinkedList<>();
-        for (char[] targetChars : targetCharsList) {
-            kmpList.add(KMP.of(inputChars, targetChars).setCompare((ie, te) -> isEquals(ignoreCase, ie, te)));
+        return output;
+    }
+
+    /**
+     * 清理字符序列中的指定内容后追加到输出中，不创建中间字符串
+     * <p>
+     * 输入短于64个字符且不包含任何目标时不构建多目标自动机，其它情况每次调用都会构建，
+     * 需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param output     输出
+     * @param input      要清理的字符序列
+     * @param targets    要移除的目标字符串数组
+     * @param <A>        输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #clean(boolean, CharSequence, CharSequence...)
+     */
+    public static <A extends Appendable> A cleanTo(boolean ignoreCase, A output, CharSequence input, CharSequence... targets) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null || input.length() == 0) {
+            return output;
         }
-        // 使用StringBuilder构建结果
-        StringBuilder result = new StringBuilder(input.length());
-        int inputLength = inputChars.length;
-        int position = 0;
-        while (position < inputLength) {
-            int matchStart = -1;
-            int matchLength = 0;
-            // 检查当前位置是否匹配任何目标字符串
-            for (KMP<Character> kmp : kmpList) {
-                int foundIndex = kmp.indexOf(position);
-                if (foundIndex == position) {
-                    matchStart = foundIndex;
-                    matchLength = kmp.getTargetLength();
-                    break;
-                }
-            }
-            if (matchStart != -1) {
-                // 找到匹配项，跳过该匹配项
-                position += matchLength;
-            } else {
-                // 没有找到匹配项，将当前字符添加到结果中
-                result.append(inputChars[position]);
-                position++;
-            }
+        if (targets == null || targets.length == 0 || !UniversalString.isAnyPossiblyFound(ignoreCase, input, targets)) {
+            output.append(input);
+            return output;
         }
-        return result.toString();
+        MultiSearchPattern.of(ignoreCase, targets).cleanTo(output, input);
+        return output;
+    }
+
+    /**
+     * 以流的方式移除所有目标字符串，从Reader读取并写入Writer，只使用固定大小的缓冲区，不会关闭Reader和Writer
+     * <p>
+     * 跨越缓冲区边界的匹配同样会被移除，结果与{@link #clean(boolean, CharSequence, CharSequence...)}一致。
+     * 每次调用都会构建多目标自动机，需要用同一组目标处理多个输入时请使用{@link #compileMulti(boolean, CharSequence...)}并复用返回的模式。
+     * </p>
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param input      输入，为null时视为空输入
+     * @param output     输出
+     * @param targets    要移除的目标字符串数组
+     * @return 移除的目标数量
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public static long clean(boolean ignoreCase, Reader input, Writer output, CharSequence... targets) throws IOException {
+        return MultiSearchPattern.of(ignoreCase, targets).clean(input, output);
     }
 
     /**
@@ -1785,93 +2041,312 @@ public class UniversalString {
         if (removeCondition == null) {
             return input.toString();
         }
-        // 使用StringBuilder构建结果
-        StringBuilder sb = new StringBuilder();
-        int inputLength = input.length();
-        for (int i = 0; i < inputLength; ) {
+        int inputLength = input.length(), i = 0;
+        // 先查找第一个需要移除的code point，没有时直接返回原字符串，不创建缓冲区
+        while (i < inputLength) {
+            int codePoint = Character.codePointAt(input, i);
+            if (removeCondition.test(codePoint)) {
+                break;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (i == inputLength) {
+            return input.toString();
+        }
+        StringBuilder sb = new StringBuilder(inputLength);
+        sb.append(input, 0, i);
+        while (i < inputLength) {
             // 获取当前位置的code point
             int codePoint = Character.codePointAt(input, i);
-            // 检查是否满足移除条件
+            int next = i + Character.charCount(codePoint);
+            // 如果不满足移除条件，则添加到结果中
             if (!removeCondition.test(codePoint)) {
-                // 如果不满足移除条件，则添加到结果中
-                sb.appendCodePoint(codePoint);
+                sb.append(input, i, next);
             }
             // 移动到下一个字符位置
-            i += Character.charCount(codePoint);
+            i = next;
         }
         return sb.toString();
     }
 
     /**
-     * 替换字符序列中的指定内容
+     * 移除字符序列中属于code point集合的字符
+     * <p>
+     * 与接受{@link IntPredicate}的重载结果一致，但内层循环直接查表判断，不会产生多态调用。
+     * </p>
      *
-     * @param ignoreCase   是否忽略大小写
-     * @param input        要处理的字符序列
-     * @param target       要被替换的目标字符串
-     * @param replacement  替换后的字符串
-     * @param replaceCount 替换次数（-1表示全部替换）
-     * @return 替换后的字符串
+     * @param input           要清理的字符序列
+     * @param removeCondition 需要移除的code point集合
+     * @return 清理后的字符串
      */
-    public static String replace(boolean ignoreCase, CharSequence input, CharSequence target, CharSequence replacement, int replaceCount) {
+    public static String clean(CharSequence input, CodePointClass removeCondition) {
         if (input == null || input.length() == 0) {
             return EMPTY_STRING;
         }
-        if (target == null || target.length() == 0 || replaceCount == 0) {
+        if (removeCondition == null) {
             return input.toString();
         }
-        char[] inputChars = UniversalString.asCharacters(input);
-        char[] targetChars = UniversalString.asCharacters(target);
-        StringBuilder sb = new StringBuilder();
-        KMP<Character> kmp = KMP.of(inputChars, targetChars).setCompare((ie, te) -> UniversalString.isEquals(ignoreCase, ie, te));
-        int startIndex = 0;
-        int foundIndex;
-        int replacementCount = 0;
-        while ((foundIndex = kmp.indexOf(startIndex)) != -1) {
-            // Append the part before the found target
-            for (int i = startIndex; i < foundIndex; i++) {
-                sb.append(inputChars[i]);
-            }
-            // Append the replacement
-            if (replacement != null) {
-                sb.append(replacement);
-            }
-            // Move the start index past the found target
-            startIndex = foundIndex + targetChars.length;
-            // Increment the replacement count and check if we've reached the limit
-            replacementCount++;
-            if (replaceCount > 0 && replacementCount >= replaceCount) {
+        int inputLength = input.length(), i = 0;
+        // 先查找第一个需要移除的code point，没有时直接返回原字符串
+        while (i < inputLength) {
+            int codePoint = Character.codePointAt(input, i);
+            if (removeCondition.test(codePoint)) {
                 break;
             }
+            i += Character.charCount(codePoint);
+        }
+        if (i == inputLength) {
+            return input.toString();
         }
-        // Append the remaining part of the input
-        for (int i = startIndex; i < inputChars.length; i++) {
-            sb.append(inputChars[i]);
+        StringBuilder sb = new StringBuilder(inputLength);
+        sb.append(input, 0, i);
+        while (i < inputLength) {
+            int codePoint = Character.codePointAt(input, i);
+            int next = i + Character.charCount(codePoint);
+            if (!removeCondition.test(codePoint)) {
+                sb.append(input, i, next);
+            }
+            i = next;
         }
         return sb.toString();
     }
 
     /**
-     * 替换字符串中的占位符
-     * <p>
-     * 使用提供的参数映射来替换字符串中的占位符。占位符格式为${...}，其中...表示占位符的键。
-     * 例如，对于字符串"Hello, ${name}!"和参数映射{name: "World"}，结果将是"Hello, World!"。
-     * </p>
+     * 根据条件清理字符序列后追加到StringBuilder中
      *
-     * @param input      包含占位符的模板字符串，如果为null或空则直接返回
-     * @param params     用于替换占位符的参数映射，键为占位符名称，值为替换内容
-     * @param ignoreNull 当占位符对应的值为null时是否忽略处理，true表示忽略(替换为空字符串)，false表示替换为"null"
-     * @return 替换占位符后的字符串，如果输入为null则返回null
+     * @param output          输出
+     * @param input           要清理的字符序列
+     * @param removeCondition 移除条件谓词
+     * @return 输出
+     * @see #clean(CharSequence, IntPredicate)
      */
-    public static String replacePlaceholder(String input, Map<?, ?> params, boolean ignoreNull) {
-        return UniversalString.replacePlaceholder(input, text -> {
-            if (params != null) {
-                Object value = params.get(text);
-                if (value != null) {
-                    return value.toString();
-                }
-            }
-            return null;
-        }, ignoreNull);
+    public static StringBuilder cleanTo(StringBuilder output, CharSequence input, IntPredicate removeCondition) {
+        try {
+            UniversalString.cleanTo((Appendable) output, input, removeCondition);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 根据条件清理字符序列后追加到输出中，不创建中间字符串
+     *
+     * @param output          输出
+     * @param input           要清理的字符序列
+     * @param removeCondition 移除条件谓词
+     * @param <A>             输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #clean(CharSequence, IntPredicate)
+     */
+    public static <A extends Appendable> A cleanTo(A output, CharSequence input, IntPredicate removeCondition) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null || input.length() == 0) {
+            return output;
+        }
+        if (removeCondition == null) {
+            output.append(input);
+            return output;
+        }
+        int inputLength = input.length();
+        for (int i = 0; i < inputLength; ) {
+            // 获取当前位置的code point
+            int codePoint = Character.codePointAt(input, i);
+            int next = i + Character.charCount(codePoint);
+            // 如果不满足移除条件，则添加到结果中
+            if (!removeCondition.test(codePoint)) {
+                output.append(input, i, next);
+            }
+            // 移动到下一个字符位置
+            i = next;
+        }
+        return output;
+    }
+
+    /**
+     * 替换字符序列中的指定内容
+     * <p>
+     * 目标不超过3个字符或输入短于64个字符时先查找目标，未出现时直接返回原字符串，不创建查找模式；
+     * 其它情况每次调用都会创建查找模式，没有匹配时同样返回原字符串。
+     * </p>
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param input        要处理的字符序列
+     * @param target       要被替换的目标字符串
+     * @param replacement  替换后的字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @return 替换后的字符串
+     */
+    public static String replace(boolean ignoreCase, CharSequence input, CharSequence target, CharSequence replacement, int replaceCount) {
+        if (input == null || input.length() == 0) {
+            return EMPTY_STRING;
+        }
+        if (target == null || target.length() == 0 || replaceCount == 0) {
+            return input.toString();
+        }
+        if (!UniversalString.isPossiblyFound(ignoreCase, input, target)) {
+            return input.toString();
+        }
+        return new SearchPattern(ignoreCase, target.toString()).replace(input, replacement, replaceCount);
+    }
+
+    /**
+     * 替换字符序列中的指定内容后追加到StringBuilder中
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param output       输出
+     * @param input        要处理的字符序列
+     * @param target       要被替换的目标字符串
+     * @param replacement  替换后的字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @return 输出
+     * @see #replace(boolean, CharSequence, CharSequence, CharSequence, int)
+     */
+    public static StringBuilder replaceTo(boolean ignoreCase, StringBuilder output, CharSequence input, CharSequence target, CharSequence replacement, int replaceCount) {
+        try {
+            UniversalString.replaceTo(ignoreCase, (Appendable) output, input, target, replacement, replaceCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 替换字符序列中的指定内容后追加到输出中，不创建中间字符串
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param output       输出
+     * @param input        要处理的字符序列
+     * @param target       要被替换的目标字符串
+     * @param replacement  替换后的字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @param <A>          输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #replace(boolean, CharSequence, CharSequence, CharSequence, int)
+     */
+    public static <A extends Appendable> A replaceTo(boolean ignoreCase, A output, CharSequence input, CharSequence target, CharSequence replacement, int replaceCount) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null || input.length() == 0) {
+            return output;
+        }
+        if (target == null || target.length() == 0 || replaceCount == 0 || !UniversalString.isPossiblyFound(ignoreCase, input, target)) {
+            output.append(input);
+            return output;
+        }
+        new SearchPattern(ignoreCase, target.toString()).replaceTo(output, input, replacement, replaceCount);
+        return output;
+    }
+
+    /**
+     * 一次性替换前的预查找，整个输入都使用首字符扫描时先确认目标确实出现，未出现时无需创建查找模式
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param input      要处理的字符序列，不为空
+     * @param target     要被替换的目标字符串，不为空
+     * @return 目标可能出现返回true，确定不出现返回false
+     */
+    private static boolean isPossiblyFound(boolean ignoreCase, CharSequence input, CharSequence target) {
+        int inputLength = input.length(), targetLength = target.length();
+        if (targetLength > inputLength) {
+            return false;
+        }
+        if (!SearchPattern.isFirstCharOnly(targetLength, inputLength)) {
+            return true;
+        }
+        return StringSearcher.indexOfFirstChar(ignoreCase, input, 0, inputLength, StringSearcher.foldCase(ignoreCase, target)) >= 0;
+    }
+
+    /**
+     * 一次性清理前的预查找，短输入时逐个确认目标是否出现，都未出现时无需构建多目标自动机
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param input      要处理的字符序列，不为空
+     * @param targets    要移除的目标字符串数组，不为空
+     * @return 任一目标可能出现返回true，确定都不出现返回false
+     */
+    private static boolean isAnyPossiblyFound(boolean ignoreCase, CharSequence input, CharSequence[] targets) {
+        // 长输入逐个预查找的代价会超过构建自动机，直接交给自动机处理
+        if (input.length() >= SearchPattern.SMALL_WINDOW_LENGTH) {
+            return true;
+        }
+        for (CharSequence target : targets) {
+            if (target != null && target.length() > 0 && UniversalString.isPossiblyFound(ignoreCase, input, target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 以流的方式替换指定内容，从Reader读取并写入Writer，只使用固定大小的缓冲区，不会关闭Reader和Writer
+     * <p>
+     * 跨越缓冲区边界的匹配同样会被替换，结果与{@link #replace(boolean, CharSequence, CharSequence, CharSequence, int)}一致。
+     * </p>
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param input        输入，为null时视为空输入
+     * @param output       输出
+     * @param target       要被替换的目标字符串，为null或空时原样复制
+     * @param replacement  替换后的字符串
+     * @param replaceCount 替换次数（-1表示全部替换）
+     * @return 实际替换的次数
+     * @throws IOException              读取或写入失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public static long replace(boolean ignoreCase, Reader input, Writer output, CharSequence target, CharSequence replacement, int replaceCount) throws IOException {
+        if (target == null || target.length() == 0 || replaceCount == 0) {
+            if (output == null) {
+                throw new IllegalArgumentException("Output must not be null.");
+            }
+            // 没有要替换的内容时直接复制，不需要编译查找模式
+            if (input != null) {
+                StreamReplacer.copy(input, output, new char[StreamReplacer.DEFAULT_BUFFER_SIZE]);
+            }
+            return 0;
+        }
+        return new SearchPattern(ignoreCase, target.toString()).replace(input, output, replacement, replaceCount);
+    }
+
+    /**
+     * 一次扫描替换字符序列中的多个目标字符串
+     * <p>
+     * 按最左最长语义替换：优先替换起始位置最靠左的目标，起始位置相同时替换最长的目标，替换后的内容不会再次参与匹配。
+     * 例如，对于映射{a: "b", b: "a"}，"ab"的结果为"ba"。需要重复使用同一映射时请使用{@link #compileReplace(boolean, Map)}。
+     * </p>
+     *
+     * @param ignoreCase   是否忽略大小写
+     * @param input        要处理的字符序列
+     * @param replacements 目标字符串到替换字符串的映射，键为null或空字符串的映射会被忽略，值为null时删除目标
+     * @return 替换后的字符串
+     */
+    public static String replaceEach(boolean ignoreCase, CharSequence input, Map<? extends CharSequence, ? extends CharSequence> replacements) {
+        if (input == null || input.length() == 0) {
+            return EMPTY_STRING;
+        }
+        if (replacements == null || replacements.isEmpty()) {
+            return input.toString();
+        }
+        return ReplacePattern.of(ignoreCase, replacements).replace(input);
+    }
+
+    /**
+     * 替换字符串中的占位符
+     * <p>
+     * 使用提供的参数映射来替换字符串中的占位符。占位符格式为${...}，其中...表示占位符的键。
+     * 例如，对于字符串"Hello, ${name}!"和参数映射{name: "World"}，结果将是"Hello, World!"。
+     * </p>
+     *
+     * @param input      包含占位符的模板字符串，如果为null或空则直接返回
+     * @param params     用于替换占位符的参数映射，键为占位符名称，值为替换内容
+     * @param ignoreNull 当占位符对应的值为null时是否忽略处理，true表示忽略(替换为空字符串)，false表示替换为"null"
+     * @return 替换占位符后的字符串，如果输入为null则返回null
+     */
+    public static String replacePlaceholder(String input, Map<?, ?> params, boolean ignoreNull) {
+        return UniversalString.replacePlaceholder(input, PlaceholderTemplate.asFunction(params), ignoreNull);
     }
 
     /**
@@ -1893,27 +2368,16 @@ public class UniversalString {
         if (function == null) {
             return input;
         }
-        StringBuffer sb = new StringBuffer(input.length());
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
-        while (matcher.find()) {
-            String ph = matcher.group();
-            // 安全提取占位符内容（去除前后大括号）
-            String placeholderContent = ph.length() > 3 ? ph.substring(2, ph.length() - 1) : "";
-            // 使用paramSupplier获取实际替换值
-            String replacement = function.apply(placeholderContent);
-            // 对替换值进行转义处理
-            if (replacement != null) {
-                matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-            } else {
-                if (ignoreNull) {
-                    matcher.appendReplacement(sb, "");
-                } else {
-                    matcher.appendReplacement(sb, "null");
-                }
-            }
-        }
-        matcher.appendTail(sb);
-        return sb.toString();
+        return PLACEHOLDER_TEMPLATE_CACHE.get(input, PlaceholderTemplate::of).render(function, ignoreNull);
+    }
+
+    /**
+     * 获取replacePlaceholder使用的占位符模板缓存，可用于调整容量和查看命中统计
+     *
+     * @return 占位符模板缓存
+     */
+    public static TemplateCache<PlaceholderTemplate> getPlaceholderTemplateCache() {
+        return PLACEHOLDER_TEMPLATE_CACHE;
     }
 
     /**
@@ -1946,35 +2410,117 @@ public class UniversalString {
         if (input == null) {
             return EMPTY_STRING;
         }
-        StringBuilder sb = new StringBuilder();
+        return UniversalString.joinTo(new StringBuilder(), delimiter, elementPrefix, elementSuffix, prefix, suffix, input).toString();
+    }
+
+    /**
+     * 使用分隔符连接字符序列数组后追加到StringBuilder中
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要连接的字符序列数组
+     * @return 输出
+     * @see #join(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence...)
+     */
+    public static StringBuilder joinTo(StringBuilder output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix, CharSequence prefix, CharSequence suffix, CharSequence... input) {
+        return UniversalString.joinTo(output, delimiter, elementPrefix, elementSuffix, prefix, suffix, input == null ? null : Arrays.asList(input));
+    }
+
+    /**
+     * 使用分隔符连接字符序列集合后追加到StringBuilder中
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要连接的字符序列集合
+     * @return 输出
+     * @see #join(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, Iterable)
+     */
+    public static StringBuilder joinTo(StringBuilder output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix, CharSequence prefix, CharSequence suffix, Iterable<CharSequence> input) {
+        try {
+            UniversalString.joinTo((Appendable) output, delimiter, elementPrefix, elementSuffix, prefix, suffix, input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 使用分隔符连接字符序列数组后追加到输出中，不创建中间字符串
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要连接的字符序列数组
+     * @param <A>           输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #join(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence...)
+     */
+    public static <A extends Appendable> A joinTo(A output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix, CharSequence prefix, CharSequence suffix, CharSequence... input) throws IOException {
+        return UniversalString.joinTo(output, delimiter, elementPrefix, elementSuffix, prefix, suffix, input == null ? null : Arrays.asList(input));
+    }
+
+    /**
+     * 使用分隔符连接字符序列集合后追加到输出中，不创建中间字符串
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要连接的字符序列集合，为null时不追加任何内容
+     * @param <A>           输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #join(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, Iterable)
+     */
+    public static <A extends Appendable> A joinTo(A output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix, CharSequence prefix, CharSequence suffix, Iterable<CharSequence> input) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null) {
+            return output;
+        }
         // 添加整体前缀
         if (prefix != null) {
-            sb.append(prefix);
+            output.append(prefix);
         }
         boolean first = true;
         for (CharSequence element : input) {
             if (!first && delimiter != null) {
-                sb.append(delimiter);
+                output.append(delimiter);
             }
             // 添加元素前缀
             if (elementPrefix != null) {
-                sb.append(elementPrefix);
+                output.append(elementPrefix);
             }
             // 添加元素本身
             if (element != null) {
-                sb.append(element);
+                output.append(element);
             }
             // 添加元素后缀
             if (elementSuffix != null) {
-                sb.append(elementSuffix);
+                output.append(elementSuffix);
             }
             first = false;
         }
         // 添加整体后缀
         if (suffix != null) {
-            sb.append(suffix);
+            output.append(suffix);
         }
-        return sb.toString();
+        return output;
     }
 
     /**
@@ -1992,97 +2538,114 @@ public class UniversalString {
      */
     public static List<String> split(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
                                      CharSequence prefix, CharSequence suffix, IntPredicate trimCondition, CharSequence input) {
-        // 空值检查
-        if (input == null || input.length() == 0) {
-            return retainEmpty ? Collections.singletonList("") : Collections.emptyList();
-        }
-        int[] inputCodePoints = UniversalString.asCodepoints(input, trimCondition);
-        int[] prefixCodePoints = UniversalString.asCodepoints(prefix);
-        int[] suffixCodePoints = UniversalString.asCodepoints(suffix);
-        int startInclusive = 0, endExclusive = inputCodePoints.length;
-
-        while (UniversalString.isStartsWith(false, inputCodePoints, startInclusive, endExclusive, prefixCodePoints)) {
-            startInclusive += prefixCodePoints.length;
-        }
-        while (UniversalString.isEndsWith(false, inputCodePoints, startInclusive, endExclusive, suffixCodePoints)) {
-            endExclusive -= suffixCodePoints.length;
-        }
-        if (startInclusive >= endExclusive) {
-            return retainEmpty ? Collections.singletonList(EMPTY_STRING) : Collections.emptyList();
-        }
+        // 直接在原字符序列上按字符扫描，不转换为code point数组，只为结果元素分配内存
         List<String> result = new ArrayList<>();
-        int[] elementPrefixCodePoints = UniversalString.asCodepoints(elementPrefix);
-        int[] elementSuffixCodePoints = UniversalString.asCodepoints(elementSuffix);
-        if (delimiter == null || delimiter.length() == 0) {
-            while (UniversalString.isStartsWith(false, inputCodePoints, startInclusive, endExclusive, elementPrefixCodePoints)) {
-                startInclusive += elementPrefixCodePoints.length;
-            }
-            while (UniversalString.isEndsWith(false, inputCodePoints, startInclusive, endExclusive, elementSuffixCodePoints)) {
-                endExclusive -= elementSuffixCodePoints.length;
-            }
-            if (startInclusive >= endExclusive) {
-                return retainEmpty ? Collections.singletonList(EMPTY_STRING) : Collections.emptyList();
-            }
-            result.add(new String(inputCodePoints, startInclusive, endExclusive - startInclusive));
-        } else {
-            IntUnaryOperator trim = i -> trimCondition.test(inputCodePoints[i]) ? Character.charCount(inputCodePoints[i]) : 0;
-            int[] delimiterCodePoints = delimiter.codePoints().toArray();
-            int index;
-            int[] elementIndexes = new int[2];
-            while ((index = UniversalString.indexOf(false, inputCodePoints, startInclusive, endExclusive, delimiterCodePoints)) >= 0 && index < endExclusive) {
-                elementIndexes[0] = startInclusive;
-                elementIndexes[1] = index;
-                if (trimCondition != null) {
-                    UniversalString.calculateTrimBounds(elementIndexes, true, true, trim);
-                }
-                // 处理元素前缀
-                while (UniversalString.isStartsWith(false, inputCodePoints, elementIndexes[0], elementIndexes[1], elementPrefixCodePoints)) {
-                    elementIndexes[0] += elementPrefixCodePoints.length;
-                }
-                // 处理元素后缀
-                while (UniversalString.isEndsWith(false, inputCodePoints, elementIndexes[0], elementIndexes[1], elementSuffixCodePoints)) {
-                    elementIndexes[1] -= elementSuffixCodePoints.length;
-                }
-                if (trimCondition != null) {
-                    UniversalString.calculateTrimBounds(elementIndexes, true, true, trim);
-                }
-                // 添加元素到结果列表
-                if (elementIndexes[0] < elementIndexes[1] || retainEmpty) {
-                    result.add(new String(inputCodePoints, elementIndexes[0], elementIndexes[1] - elementIndexes[0]));
-                }
-                // 更新下一个搜索起始位置
-                startInclusive = index + delimiterCodePoints.length;
-            }
-            // 处理最后一个元素
-            if (startInclusive < endExclusive) {
-                elementIndexes[0] = startInclusive;
-                elementIndexes[1] = endExclusive;
-                if (trimCondition != null) {
-                    UniversalString.calculateTrimBounds(elementIndexes, true, true, trim);
-                }
-                // 处理元素前缀
-                if (UniversalString.isStartsWith(false, inputCodePoints, elementIndexes[0], elementIndexes[1], elementPrefixCodePoints)) {
-                    elementIndexes[0] += elementPrefixCodePoints.length;
-                }
-                // 处理元素后缀
-                if (UniversalString.isEndsWith(false, inputCodePoints, elementIndexes[0], elementIndexes[1], elementSuffixCodePoints)) {
-                    elementIndexes[1] -= elementSuffixCodePoints.length;
-                }
-                if (trimCondition != null) {
-                    UniversalString.calculateTrimBounds(elementIndexes, true, true, trim);
-                }
-                // 添加最后一个元素到结果列表
-                if (elementIndexes[0] < elementIndexes[1] || retainEmpty) {
-                    result.add(new String(inputCodePoints, elementIndexes[0], elementIndexes[1] - elementIndexes[0]));
-                }
-            } else if (startInclusive == endExclusive && retainEmpty) {
-                // 如果startIndex等于end且需要保留空元素，则添加空字符串
-                result.add(EMPTY_STRING);
-            }
-        }
+        SplitSpliterator.of(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).forEachRemaining(result::add);
         return result;
     }
 
+    /**
+     * 根据分隔符分割字符序列，使用code point集合去除元素前后的字符
+     * <p>
+     * 去除时ASCII字符直接查掩码，非ASCII字符才按code point在区间中查找，判断调用是单态的。
+     * </p>
+     *
+     * @param retainEmpty   是否保留空元素
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param trimCondition 需要去除的code point集合，为null时表示不去除
+     * @param input         要分割的字符序列
+     * @return 分割后的字符串列表
+     * @see #split(boolean, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, IntPredicate, CharSequence)
+     */
+    public static List<String> split(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                     CharSequence prefix, CharSequence suffix, CodePointClass trimCondition, CharSequence input) {
+        return UniversalString.split(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, (IntPredicate) trimCondition, input);
+    }
+
+    /**
+     * 根据分隔符惰性分割字符序列，与{@link #split(boolean, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, IntPredicate, CharSequence)}的结果一致
+     * <p>
+     * 每次迭代只查找下一个分隔符并生成一个元素，只需要前几个元素时不会处理剩余内容。
+     * </p>
+     *
+     * @param retainEmpty   是否保留空元素
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param trimCondition 去除条件谓词，用于去除元素前后的空白字符
+     * @param input         要分割的字符序列
+     * @return 分割结果的迭代器
+     */
+    public static Iterator<String> splitIterator(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                                 CharSequence prefix, CharSequence suffix, IntPredicate trimCondition, CharSequence input) {
+        return Spliterators.iterator(SplitSpliterator.of(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input));
+    }
+
+    /**
+     * 根据分隔符惰性分割字符序列，返回顺序流，与{@link #split(boolean, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, IntPredicate, CharSequence)}的结果一致
+     * <p>
+     * 转换为并行流后会在分隔符处拆分输入，各部分在ForkJoinPool中并行分割，结果的顺序保持不变。
+     * </p>
+     *
+     * <pre>
+     *   UniversalString.splitStream(false, ",", null, null, null, null, Character::isWhitespace, " a, b ,c").limit(2) = ["a", "b"]
+     * </pre>
+     *
+     * @param retainEmpty   是否保留空元素
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param trimCondition 去除条件谓词，用于去除元素前后的空白字符
+     * @param input         要分割的字符序列
+     * @return 分割结果的流
+     */
+    public static Stream<String> splitStream(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                             CharSequence prefix, CharSequence suffix, IntPredicate trimCondition, CharSequence input) {
+        return StreamSupport.stream(SplitSpliterator.of(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input), false);
+    }
+
+    /**
+     * 根据分隔符分割字符序列，只输出每个元素的边界索引，不创建元素字符串，与{@link #split(boolean, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, IntPredicate, CharSequence)}的规则一致
+     * <p>
+     * 第i个元素的起始位置写入output[2 * i]，结束位置（不包含）写入output[2 * i + 1]，保留的空元素起始位置等于结束位置。
+     * 容量不足时只写入前output.length / 2个元素，返回值仍然是元素的总数量，调用方可以据此扩容后重新分割。
+     * 可以与{@link #regionMatches(boolean, CharSequence, int, CharSequence, int, int)}等方法配合使用，在处理每个元素时不分配任何内存。
+     * </p>
+     *
+     * <pre>
+     *   int[] bounds = new int[8];
+     *   UniversalString.splitBounds(false, ",", null, null, null, null, Character::isWhitespace, "a, bc ,d", bounds) = 3
+     *   bounds = [0, 1, 3, 5, 7, 8, 0, 0]
+     * </pre>
+     *
+     * @param retainEmpty   是否保留空元素
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param trimCondition 去除条件谓词，用于去除元素前后的空白字符
+     * @param input         要分割的字符序列
+     * @param output        输出元素边界的数组，可以重复使用
+     * @return 元素的数量
+     * @throws IllegalArgumentException 当输出数组为null时抛出
+     */
+    public static int splitBounds(boolean retainEmpty, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                  CharSequence prefix, CharSequence suffix, IntPredicate trimCondition, CharSequence input, int[] output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
+        }
+        return SplitSpliterator.of(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).fill(output);
+    }
+
     /**
      * 文字脱敏
      *
@@ -2094,15 +2657,63 @@ public class UniversalString {
      * @return 返回数据脱敏后的文字
      */
     public static String desensitize(CharSequence input, CharSequence mark, int markLeadingLength, int markCenterLength, int markTailingLength) {
-        if (input == null) {
+        if (input == null || input.length() == 0 || mark == null || mark.length() == 0) {
             return EMPTY_STRING;
         }
+        // 没有任何需要掩码的部分时直接返回原字符串
+        if (markLeadingLength <= 0 && markCenterLength <= 0 && markTailingLength <= 0) {
+            return input.toString();
+        }
+        return UniversalString.desensitizeTo(new StringBuilder(input.length()), input, mark, markLeadingLength, markCenterLength, markTailingLength).toString();
+    }
+
+    /**
+     * 文字脱敏后追加到StringBuilder中
+     *
+     * @param output            输出
+     * @param input             字符串数据
+     * @param mark              掩码字符
+     * @param markLeadingLength 前缀部分掩码长度
+     * @param markCenterLength  中间部分掩码长度
+     * @param markTailingLength 后缀部分掩码长度
+     * @return 输出
+     * @see #desensitize(CharSequence, CharSequence, int, int, int)
+     */
+    public static StringBuilder desensitizeTo(StringBuilder output, CharSequence input, CharSequence mark, int markLeadingLength, int markCenterLength, int markTailingLength) {
+        try {
+            UniversalString.desensitizeTo((Appendable) output, input, mark, markLeadingLength, markCenterLength, markTailingLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 文字脱敏后追加到输出中，不创建中间字符串
+     *
+     * @param output            输出
+     * @param input             字符串数据
+     * @param mark              掩码字符
+     * @param markLeadingLength 前缀部分掩码长度
+     * @param markCenterLength  中间部分掩码长度
+     * @param markTailingLength 后缀部分掩码长度
+     * @param <A>               输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #desensitize(CharSequence, CharSequence, int, int, int)
+     */
+    public static <A extends Appendable> A desensitizeTo(A output, CharSequence input, CharSequence mark, int markLeadingLength, int markCenterLength, int markTailingLength) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null) {
+            return output;
+        }
         int inputLength = input.length();
         if (inputLength == 0) {
-            return EMPTY_STRING;
+            return output;
         }
         if (mark == null || mark.length() == 0) {
-            return EMPTY_STRING;
+            return output;
         }
         // 确保掩码长度参数非负
         if (markLeadingLength < 0) {
@@ -2121,48 +2732,65 @@ public class UniversalString {
                 || markCenterLength + markTailingLength > inputLength
                 || markLeadingLength + markCenterLength + markTailingLength > inputLength;
         if (isAllMark) {
-            // 如果需要全部脱敏，则返回与输入字符串等长的掩码字符串
-            return UniversalString.repeat(null, null, null, null, null, mark, inputLength);
+            // 如果需要全部脱敏，则追加与输入字符串等长的掩码
+            return UniversalString.repeatTo(output, null, null, null, null, null, mark, inputLength);
         }
         // 计算中间保留部分的长度
         int length = inputLength - markLeadingLength - markCenterLength - markTailingLength;
         int startLength = length / 2 + length % 2, endLength = length / 2;
-        StringBuilder sb = new StringBuilder(inputLength);
         int count = 0;
         // 添加前缀掩码
         for (int i = 0; i < markLeadingLength; i++) {
-            sb.append(mark);
+            output.append(mark);
         }
         count += markLeadingLength;
         // 添加前半部分保留内容
-        for (int i = 0; i < startLength; i++) {
-            int codePoint = Character.codePointAt(input, count + i);
-            sb.appendCodePoint(codePoint);
-            if (Character.charCount(codePoint) != 1) {
-                i++;
-            }
-        }
+        UniversalString.appendCodePoints(output, input, count, startLength);
         count += startLength;
         // 添加中间掩码
         for (int i = 0; i < markCenterLength; i++) {
-            sb.append(mark);
+            output.append(mark);
         }
         count += markCenterLength;
         // 添加后半部分保留内容
-        for (int i = 0; i < endLength; i++) {
-            int codePoint = Character.codePointAt(input, count + i);
-            sb.appendCodePoint(codePoint);
-            if (Character.charCount(codePoint) != 1) {
+        UniversalString.appendCodePoints(output, input, count, endLength);
+        // 添加后缀掩码
+        for (int i = 0; i < markTailingLength; i++) {
+            output.append(mark);
+        }
+        return output;
+    }
+
+    /**
+     * 从指定位置开始追加至少length个字符，结尾处不会拆开代理对
+     *
+     * @param output 输出
+     * @param input  输入字符序列
+     * @param offset 起始位置
+     * @param length 要追加的字符数量
+     * @throws IOException 追加失败时抛出
+     */
+    private static void appendCodePoints(Appendable output, CharSequence input, int offset, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            int codePoint = Character.codePointAt(input, offset + i);
+            int charCount = Character.charCount(codePoint);
+            output.append(input, offset + i, offset + i + charCount);
+            if (charCount != 1) {
                 i++;
             }
         }
-        count += endLength;
-        // 添加后缀掩码
-        for (int i = 0; i < markTailingLength; i++) {
-            sb.append(mark);
+    }
+
+    /**
+     * 检查输出是否为null
+     *
+     * @param output 输出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    private static void checkOutput(Appendable output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Output must not be null.");
         }
-        count += markTailingLength;
-        return sb.toString();
     }
 
     /**
@@ -2186,42 +2814,68 @@ public class UniversalString {
         if (placeHolder == null || placeHolder.length() == 0) {
             return template.toString();
         }
-        int templateLength = template.length(), placeHolderLength = placeHolder.length();
-        // 更合理的初始容量估算
-        int estimatedCapacity = templateLength + (args.length * 10); // 假设每个参数平均长度为10
-        StringBuilder sb = new StringBuilder(estimatedCapacity);
-        int handledPosition = 0; // 已处理到的位置
-        int argIndex = 0;
-        while (handledPosition < templateLength) {
-            int delimIndex = UniversalString.indexOf(false, template, handledPosition, templateLength, placeHolder);
-            if (delimIndex == -1) {
-                // 没有更多占位符了，追加剩余内容并返回
-                sb.append(template, handledPosition, templateLength);
-                break;
-            }
-            // 统计占位符前连续的反斜杠数量
-            int slashCount = 0;
-            for (int pos = delimIndex - 1; pos > 0 && template.charAt(pos) == '\\'; pos--) {
-                slashCount++;
-            }
-            // 判断是否是转义
-            if (slashCount % 2 == 1) {
-                // 是转义，保留一个反斜杠，并跳过占位符
-                sb.append(template, handledPosition, delimIndex - 1);
-                sb.append(placeHolder);
-            } else {
-                // 不是转义，正常替换
-                sb.append(template, handledPosition, delimIndex - (slashCount == 0 ? 0 : slashCount - 1));
-                if (argIndex < args.length) {
-                    sb.append(args[argIndex++]);
-                } else {
-                    // 参数不足，保留原始占位符
-                    sb.append(placeHolder);
-                }
-            }
-            handledPosition = delimIndex + placeHolderLength;
+        return UniversalString.getFormatTemplate(template, placeHolder).format(args);
+    }
+
+    /**
+     * 格式化字符串后追加到StringBuilder中
+     *
+     * @param output      输出
+     * @param template    字符串模板
+     * @param placeHolder 占位符，例如{}
+     * @param args        参数列表
+     * @return 输出
+     * @see #format(CharSequence, CharSequence, Object...)
+     */
+    public static StringBuilder formatTo(StringBuilder output, CharSequence template, CharSequence placeHolder, Object... args) {
+        try {
+            UniversalString.formatTo((Appendable) output, template, placeHolder, args);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return sb.toString();
+        return output;
+    }
+
+    /**
+     * 格式化字符串后追加到输出中，不创建中间字符串
+     *
+     * @param output      输出
+     * @param template    字符串模板
+     * @param placeHolder 占位符，例如{}
+     * @param args        参数列表
+     * @param <A>         输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #format(CharSequence, CharSequence, Object...)
+     */
+    public static <A extends Appendable> A formatTo(A output, CharSequence template, CharSequence placeHolder, Object... args) throws IOException {
+        UniversalString.checkOutput(output);
+        return UniversalString.getFormatTemplate(template, placeHolder).formatTo(output, args);
+    }
+
+    /**
+     * 获取解析后的格式化模板，模板为String时从缓存中获取
+     *
+     * @param template    字符串模板
+     * @param placeHolder 占位符
+     * @return 格式化模板
+     */
+    private static FormatTemplate getFormatTemplate(CharSequence template, CharSequence placeHolder) {
+        if (!(template instanceof String) || placeHolder == null || placeHolder.length() == 0) {
+            return FormatTemplate.of(template, placeHolder);
+        }
+        // 缓存以模板和占位符为键，同一模板交替使用不同占位符时各自命中
+        return FORMAT_TEMPLATE_CACHE.load(new FormatTemplate.CacheKey((String) template, placeHolder.toString()), key -> FormatTemplate.of(key.template, key.placeHolder));
+    }
+
+    /**
+     * 获取format和formatTo使用的格式化模板缓存，可用于调整容量和查看命中统计
+     *
+     * @return 格式化模板缓存
+     */
+    public static TemplateCache<FormatTemplate> getFormatTemplateCache() {
+        return FORMAT_TEMPLATE_CACHE;
     }
 
     /**
@@ -2254,31 +2908,76 @@ public class UniversalString {
         if (input == null || input.length() == 0) {
             return prefix + "" + suffix;
         }
-        if (delimiter == null) {
-            delimiter = "";
-        }
-        if (elementPrefix == null) {
-            elementPrefix = "";
-        }
-        if (elementSuffix == null) {
-            elementSuffix = "";
-        }
-        if (prefix == null) {
-            prefix = "";
+        return UniversalString.repeatTo(new StringBuilder(), delimiter, elementPrefix, elementSuffix, prefix, suffix, input, repeat).toString();
+    }
+
+    /**
+     * 重复字符序列指定次数并用分隔符连接后追加到StringBuilder中
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要重复的字符序列
+     * @param repeat        重复次数
+     * @return 输出
+     * @see #repeat(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, int)
+     */
+    public static StringBuilder repeatTo(StringBuilder output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                         CharSequence prefix, CharSequence suffix, CharSequence input, int repeat) {
+        try {
+            UniversalString.repeatTo((Appendable) output, delimiter, elementPrefix, elementSuffix, prefix, suffix, input, repeat);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        if (suffix == null) {
-            suffix = "";
+        return output;
+    }
+
+    /**
+     * 重复字符序列指定次数并用分隔符连接后追加到输出中，不创建中间字符串
+     * <p>
+     * 与{@link #repeat(CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, CharSequence, int)}不同，为null的前缀和后缀不会被追加为"null"。
+     * </p>
+     *
+     * @param output        输出
+     * @param delimiter     分隔符
+     * @param elementPrefix 每个元素的前缀
+     * @param elementSuffix 每个元素的后缀
+     * @param prefix        整体前缀
+     * @param suffix        整体后缀
+     * @param input         要重复的字符序列
+     * @param repeat        重复次数
+     * @param <A>           输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     */
+    public static <A extends Appendable> A repeatTo(A output, CharSequence delimiter, CharSequence elementPrefix, CharSequence elementSuffix,
+                                                    CharSequence prefix, CharSequence suffix, CharSequence input, int repeat) throws IOException {
+        UniversalString.checkOutput(output);
+        if (prefix != null) {
+            output.append(prefix);
         }
-        StringBuilder result = new StringBuilder();
-        result.append(prefix);
-        for (int i = 0; i < repeat; i++) {
-            if (i > 0) {
-                result.append(delimiter);
+        if (repeat > 0 && input != null && input.length() > 0) {
+            for (int i = 0; i < repeat; i++) {
+                if (i > 0 && delimiter != null) {
+                    output.append(delimiter);
+                }
+                if (elementPrefix != null) {
+                    output.append(elementPrefix);
+                }
+                output.append(input);
+                if (elementSuffix != null) {
+                    output.append(elementSuffix);
+                }
             }
-            result.append(elementPrefix).append(input).append(elementSuffix);
         }
-        result.append(suffix);
-        return result.toString();
+        if (suffix != null) {
+            output.append(suffix);
+        }
+        return output;
     }
 
     /**
@@ -2370,56 +3069,137 @@ public class UniversalString {
         if (input == null || input.length() == 0) {
             return EMPTY_STRING;
         }
-        int inputLength = input.length(), startInclusive = 0, endExclusive = inputLength;
-        // 如果没有提供要去除的内容，则使用默认空白字符进行trim操作
-        if (trims == null || trims.length == 0) {
-            return UniversalString.trim(input, isTrimLeading, isTrimTrailing, Character::isWhitespace);
+        int inputLength = input.length();
+        // 如果没有提供有效的要去除的内容，则使用默认空白字符进行trim操作
+        if (!UniversalString.hasTrims(inputLength, trims)) {
+            return UniversalString.trim(input, isTrimLeading, isTrimTrailing, (IntPredicate) null);
+        }
+        // 两端都不需要去除时直接返回原字符串，不创建缓冲区
+        if ((!isTrimLeading || UniversalString.matchTrim(ignoreCase, input, 0, true, trims) == 0)
+                && (!isTrimTrailing || UniversalString.matchTrim(ignoreCase, input, inputLength, false, trims) == 0)) {
+            return input.toString();
+        }
+        return UniversalString.trimTo(ignoreCase, new StringBuilder(inputLength), input, isTrimLeading, isTrimTrailing, trims).toString();
+    }
+
+    /**
+     * 去除字符序列两端的指定内容后追加到StringBuilder中
+     *
+     * @param ignoreCase     是否忽略大小写
+     * @param output         输出
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trims          要去除的目标字符串数组
+     * @return 输出
+     * @see #trim(boolean, CharSequence, boolean, boolean, CharSequence...)
+     */
+    public static StringBuilder trimTo(boolean ignoreCase, StringBuilder output, CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, CharSequence... trims) {
+        try {
+            UniversalString.trimTo(ignoreCase, (Appendable) output, input, isTrimLeading, isTrimTrailing, trims);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 去除字符序列两端的指定内容后追加到输出中，不创建中间字符串
+     *
+     * @param ignoreCase     是否忽略大小写
+     * @param output         输出
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trims          要去除的目标字符串数组
+     * @param <A>            输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #trim(boolean, CharSequence, boolean, boolean, CharSequence...)
+     */
+    public static <A extends Appendable> A trimTo(boolean ignoreCase, A output, CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, CharSequence... trims) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null || input.length() == 0) {
+            return output;
         }
-        // 过滤掉null和长度大于等于原字符串的无效trim项
-        trims = Arrays.stream(trims).filter(Objects::nonNull).filter(ele -> ele.length() < inputLength).toArray(CharSequence[]::new);
-        if (trims.length == 0) {
-            return UniversalString.trim(input, isTrimLeading, isTrimTrailing, Character::isWhitespace);
+        int inputLength = input.length(), startInclusive = 0, endExclusive = inputLength, length;
+        // 如果没有提供有效的要去除的内容，则使用默认空白字符进行trim操作
+        if (!UniversalString.hasTrims(inputLength, trims)) {
+            return UniversalString.trimTo(output, input, isTrimLeading, isTrimTrailing, Character::isWhitespace);
         }
         // 去除开头部分匹配的内容
-        if (isTrimLeading) {
-            while (startInclusive < endExclusive) {
-                boolean trim = false;
-                // 检查当前起始位置是否与任意一个目标字符串匹配
-                for (CharSequence target : trims) {
-                    if (UniversalString.regionMatches(ignoreCase, input, startInclusive, target, 0, target.length())) {
-                        trim = true;
-                        startInclusive += target.length();
-                        break;
-                    }
-                }
-                if (!trim) {
-                    break;
-                }
-            }
+        while (isTrimLeading && startInclusive < endExclusive && (length = UniversalString.matchTrim(ignoreCase, input, startInclusive, true, trims)) > 0) {
+            startInclusive += length;
         }
         // 去除结尾部分匹配的内容
-        if (isTrimTrailing) {
-            while (startInclusive < endExclusive) {
-                boolean trim = false;
-                // 检查当前结束位置是否与任意一个目标字符串匹配
-                for (CharSequence target : trims) {
-                    if (UniversalString.regionMatches(ignoreCase, input, endExclusive - target.length(), target, 0, target.length())) {
-                        trim = true;
-                        endExclusive -= target.length();
-                        break;
-                    }
-                }
-                if (!trim) {
-                    break;
+        while (isTrimTrailing && startInclusive < endExclusive && (length = UniversalString.matchTrim(ignoreCase, input, endExclusive, false, trims)) > 0) {
+            endExclusive -= length;
+        }
+        // 如果整个字符串都被移除，则不追加任何内容
+        if (startInclusive < endExclusive) {
+            output.append(input, startInclusive, endExclusive);
+        }
+        return output;
+    }
+
+    /**
+     * 判断是否存在有效的trim项，null、空字符串和长度大于等于原字符串的trim项都是无效的
+     *
+     * @param inputLength 原字符串长度
+     * @param trims       要去除的目标字符串数组
+     * @return 存在有效的trim项返回true，否则返回false
+     */
+    private static boolean hasTrims(int inputLength, CharSequence[] trims) {
+        if (trims != null) {
+            for (CharSequence target : trims) {
+                if (target != null && target.length() > 0 && target.length() < inputLength) {
+                    return true;
                 }
             }
         }
-        // 如果整个字符串都被移除，则返回空字符串
-        if (startInclusive >= endExclusive) {
-            return EMPTY_STRING;
+        return false;
+    }
+
+    /**
+     * 检查指定位置是否与任意一个有效的trim项匹配
+     *
+     * @param ignoreCase 是否忽略大小写
+     * @param input      要处理的字符序列
+     * @param position   开头时为起始位置，结尾时为结束位置
+     * @param isLeading  true表示检查开头，false表示检查结尾
+     * @param trims      要去除的目标字符串数组
+     * @return 第一个匹配的trim项的长度，没有匹配时返回0
+     */
+    private static int matchTrim(boolean ignoreCase, CharSequence input, int position, boolean isLeading, CharSequence[] trims) {
+        int inputLength = input.length();
+        for (CharSequence target : trims) {
+            if (target == null) {
+                continue;
+            }
+            int targetLength = target.length();
+            if (targetLength == 0 || targetLength >= inputLength) {
+                continue;
+            }
+            if (UniversalString.regionMatches(ignoreCase, input, isLeading ? position : position - targetLength, target, 0, targetLength)) {
+                return targetLength;
+            }
         }
-        // 返回处理后的新字符串
-        return input.subSequence(startInclusive, endExclusive).toString();
+        return 0;
+    }
+
+    /**
+     * 判断字符序列两端是否存在需要去除的code point，与{@link #calculateTrimBounds(CharSequence, boolean, boolean, IntPredicate)}一样从结尾前一个字符开始读取
+     *
+     * @param input          要处理的字符序列，不能为空
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trimCondition  去除条件谓词
+     * @return 存在需要去除的code point时返回true，否则返回false
+     */
+    private static boolean isTrimRequired(CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, IntPredicate trimCondition) {
+        return (isTrimLeading && trimCondition.test(Character.codePointAt(input, 0)))
+                || (isTrimTrailing && trimCondition.test(Character.codePointAt(input, input.length() - 1)));
     }
 
     /**
@@ -2436,7 +3216,14 @@ public class UniversalString {
         if (input == null || input.length() == 0) {
             return EMPTY_STRING;
         }
-        IndexBounds bounds = UniversalString.calculateTrimBounds(input, isTrimLeading, isTrimTrailing, trimCondition == null ? Character::isWhitespace : trimCondition);
+        if (trimCondition == null) {
+            trimCondition = Character::isWhitespace;
+        }
+        // 两端都不需要去除时直接返回原字符串
+        if (!UniversalString.isTrimRequired(input, isTrimLeading, isTrimTrailing, trimCondition)) {
+            return input.toString();
+        }
+        IndexBounds bounds = UniversalString.calculateTrimBounds(input, isTrimLeading, isTrimTrailing, trimCondition);
         if (bounds.isEmpty()) {
             return EMPTY_STRING;
         }
@@ -2444,6 +3231,79 @@ public class UniversalString {
         return input.subSequence(bounds.getStartInclusive(), bounds.getEndExclusive()).toString();
     }
 
+    /**
+     * 使用code point集合去除字符序列两端的内容
+     *
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trimCondition  需要去除的code point集合，为null时使用{@link CodePointClass#WHITESPACE}
+     * @return 处理后的字符串
+     */
+    public static String trim(CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, CodePointClass trimCondition) {
+        if (input == null || input.length() == 0) {
+            return EMPTY_STRING;
+        }
+        if (trimCondition == null) {
+            trimCondition = CodePointClass.WHITESPACE;
+        }
+        // 两端都不需要去除时直接返回原字符串
+        if (!UniversalString.isTrimRequired(input, isTrimLeading, isTrimTrailing, trimCondition)) {
+            return input.toString();
+        }
+        IndexBounds bounds = UniversalString.calculateTrimBounds(input, isTrimLeading, isTrimTrailing, trimCondition);
+        if (bounds.isEmpty()) {
+            return EMPTY_STRING;
+        }
+        return input.subSequence(bounds.getStartInclusive(), bounds.getEndExclusive()).toString();
+    }
+
+    /**
+     * 根据条件去除字符序列两端的内容后追加到StringBuilder中
+     *
+     * @param output         输出
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trimCondition  去除条件谓词
+     * @return 输出
+     * @see #trim(CharSequence, boolean, boolean, IntPredicate)
+     */
+    public static StringBuilder trimTo(StringBuilder output, CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, IntPredicate trimCondition) {
+        try {
+            UniversalString.trimTo((Appendable) output, input, isTrimLeading, isTrimTrailing, trimCondition);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+
+    /**
+     * 根据条件去除字符序列两端的内容后追加到输出中，不创建中间字符串
+     *
+     * @param output         输出
+     * @param input          要处理的字符序列
+     * @param isTrimLeading  是否去除开头
+     * @param isTrimTrailing 是否去除结尾
+     * @param trimCondition  去除条件谓词
+     * @param <A>            输出的类型
+     * @return 输出
+     * @throws IOException              追加失败时抛出
+     * @throws IllegalArgumentException 当输出为null时抛出
+     * @see #trim(CharSequence, boolean, boolean, IntPredicate)
+     */
+    public static <A extends Appendable> A trimTo(A output, CharSequence input, boolean isTrimLeading, boolean isTrimTrailing, IntPredicate trimCondition) throws IOException {
+        UniversalString.checkOutput(output);
+        if (input == null || input.length() == 0) {
+            return output;
+        }
+        IndexBounds bounds = UniversalString.calculateTrimBounds(input, isTrimLeading, isTrimTrailing, trimCondition == null ? Character::isWhitespace : trimCondition);
+        if (!bounds.isEmpty()) {
+            output.append(input, bounds.getStartInclusive(), bounds.getEndExclusive());
+        }
+        return output;
+    }
+
     /**
      * 根据条件去除字符数组两端的内容
      *
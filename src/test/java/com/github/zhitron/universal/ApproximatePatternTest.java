@@ -0,0 +1,146 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class ApproximatePatternTest {
+
+    @Test
+    public void test_of() {
+        ApproximatePattern pattern = UniversalString.compileApproximate(true, "a-b-c", ch -> ch == '-');
+        assertEquals("a-b-c", pattern.getTarget());
+        assertTrue(pattern.isIgnoreCase());
+        assertEquals(3, pattern.length());
+
+        try {
+            ApproximatePattern.of(false, "", null);
+            fail("Expected IllegalArgumentException for empty target");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+        try {
+            ApproximatePattern.of(false, "--", ch -> ch == '-');
+            fail("Expected IllegalArgumentException for ignored target");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+        try {
+            pattern.isContain("abc", -1);
+            fail("Expected IllegalArgumentException for negative distance");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+    }
+
+    @Test
+    public void test_indexOfEnd() {
+        ApproximatePattern pattern = UniversalString.compileApproximate(true, "connection", null);
+        // 缺少一个字符
+        assertEquals(16, pattern.indexOfEnd("error: conection refused", 1));
+        assertEquals(-1, pattern.indexOfEnd("error: conection refused", 0));
+        assertEquals(1, pattern.minDistance("error: conection refused"));
+        // 忽略大小写
+        assertEquals(0, pattern.minDistance("CONNECTION reset"));
+        assertTrue(pattern.isContain("Connectoin reset", 2));
+        assertFalse(pattern.isContain(null, 3));
+        assertEquals(10, pattern.minDistance(""));
+
+        // 被忽略的字符不参与比较
+        ApproximatePattern ignored = UniversalString.compileApproximate(false, "abc", ch -> ch == '_');
+        assertEquals(0, ignored.minDistance("xa_b__cx"));
+        assertEquals(7, ignored.indexOfEnd("xa_b__cx", 0));
+
+        // 非BMP字符按一个code point计算
+        ApproximatePattern emoji = UniversalString.compileApproximate(false, "a😀b", null);
+        assertEquals(0, emoji.minDistance("xa😀b"));
+        assertEquals(1, emoji.minDistance("xa😁b"));
+    }
+
+    @Test
+    public void test_find() {
+        ApproximatePattern pattern = UniversalString.compileApproximate(false, "abc", null);
+        List<String> matches = new ArrayList<>();
+        pattern.find("xxabcxxabxx", 1, (end, distance) -> matches.add(end + ":" + distance));
+        assertEquals("[4:1, 5:0, 6:1, 9:1, 10:1]", matches.toString());
+
+        // 返回false时停止扫描
+        matches.clear();
+        pattern.find("xxabcxxabxx", 1, (end, distance) -> !matches.add(end + ":" + distance));
+        assertEquals("[4:1]", matches.toString());
+    }
+
+    @Test
+    public void test_find_random() {
+        Random random = new Random(20240607L);
+        for (int round = 0; round < 300; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            // 覆盖单块与多块两种情况
+            boolean multiBlock = round % 3 == 0;
+            int targetLength = multiBlock ? 60 + random.nextInt(100) : 1 + random.nextInt(8);
+            String target = randomString(random, targetLength);
+            String input = randomString(random, random.nextInt(multiBlock ? 300 : 30));
+            ApproximatePattern pattern = UniversalString.compileApproximate(ignoreCase, target, null);
+            int maxDistance = random.nextInt(targetLength + 1);
+            int[] actual = new int[input.length() + 1];
+            Arrays.fill(actual, -1);
+            pattern.find(input, maxDistance, (end, distance) -> {
+                actual[end] = distance;
+                return true;
+            });
+            int[] expected = sellers(ignoreCase, input, target);
+            for (int end = 1; end <= input.length(); end++) {
+                assertEquals(input + " " + target + " " + end, expected[end] <= maxDistance ? expected[end] : -1, actual[end]);
+                // 较短时与similarDistance逐个子串比较，保证两者的距离定义一致
+                if (!multiBlock) {
+                    int min = Integer.MAX_VALUE;
+                    for (int start = 0; start <= end; start++) {
+                        min = Math.min(min, UniversalString.similarDistance(ignoreCase, input.substring(start, end), target, null));
+                    }
+                    assertEquals(min, expected[end]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 朴素的Sellers动态规划，计算以每个位置结束的子串与目标之间的最小编辑距离
+     */
+    private static int[] sellers(boolean ignoreCase, String input, String target) {
+        int m = target.length();
+        int[] column = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            column[i] = i;
+        }
+        int[] result = new int[input.length() + 1];
+        result[0] = m;
+        for (int j = 1; j <= input.length(); j++) {
+            int diagonal = column[0];
+            column[0] = 0;
+            for (int i = 1; i <= m; i++) {
+                int cost = UniversalString.isEquals(ignoreCase, input.charAt(j - 1), target.charAt(i - 1)) ? 0 : 1;
+                int value = Math.min(Math.min(column[i] + 1, column[i - 1] + 1), diagonal + cost);
+                diagonal = column[i];
+                column[i] = value;
+            }
+            result[j] = column[m];
+        }
+        return result;
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abcAB".charAt(random.nextInt(5));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class CodePointClassTest {
+
+    @Test
+    public void test_of() {
+        CodePointClass digits = CodePointClass.range('0', '9');
+        assertTrue(digits.test('0'));
+        assertTrue(digits.test('9'));
+        assertFalse(digits.test('a'));
+        assertFalse(digits.test(-1));
+
+        CodePointClass chars = CodePointClass.anyOf("a中😀");
+        assertTrue(chars.test('a'));
+        assertTrue(chars.test('中'));
+        assertTrue(chars.test(0x1F600));
+        assertFalse(chars.test('b'));
+        assertEquals(chars, CodePointClass.of(0x1F600, '中', 'a', 'a'));
+        assertEquals(CodePointClass.NONE, CodePointClass.of());
+        assertEquals("CodePointClass[U+0030-U+0039]", digits.toString());
+
+        try {
+            CodePointClass.range('9', '0');
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            CodePointClass.of(Character.MAX_CODE_POINT + 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void test_of_predicate() {
+        // 编译后的集合与原谓词对所有code point的判断结果一致
+        CodePointClass digits = CodePointClass.of(Character::isDigit);
+        for (int codePoint = Character.MIN_CODE_POINT; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            assertEquals(Character.isDigit(codePoint), digits.test(codePoint));
+        }
+        assertSame(CodePointClass.WHITESPACE, CodePointClass.of(CodePointClass.WHITESPACE));
+    }
+
+    @Test
+    public void test_whitespace() {
+        // 按区间创建的空白字符集合与Character.isWhitespace对所有code point的判断结果一致
+        for (int codePoint = Character.MIN_CODE_POINT; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            assertEquals(Character.isWhitespace(codePoint), CodePointClass.WHITESPACE.test(codePoint));
+        }
+        for (int codePoint = 0; codePoint < 0x3000; codePoint++) {
+            assertEquals(UniversalString.isWhitespace(codePoint), CodePointClass.ASCII_WHITESPACE.test(codePoint));
+            assertEquals(UniversalString.isWhitespaceOrQuotes(codePoint), CodePointClass.ASCII_WHITESPACE_OR_QUOTES.test(codePoint));
+        }
+    }
+
+    @Test
+    public void test_union_negate_intersect() {
+        Random random = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            CodePointClass a = randomClass(random), b = randomClass(random);
+            CodePointClass union = a.union(b), negate = a.negate(), intersect = a.intersect(b);
+            for (int i = 0; i < 300; i++) {
+                int codePoint = random.nextBoolean() ? random.nextInt(300) : random.nextInt(Character.MAX_CODE_POINT + 1);
+                assertEquals(a.test(codePoint) || b.test(codePoint), union.test(codePoint));
+                assertEquals(!a.test(codePoint), negate.test(codePoint));
+                assertEquals(a.test(codePoint) && b.test(codePoint), intersect.test(codePoint));
+            }
+            assertEquals(a, a.negate().negate());
+            assertEquals(union, b.union(a));
+        }
+        assertEquals(CodePointClass.ANY, CodePointClass.NONE.negate());
+        assertTrue(CodePointClass.ANY.test(Character.MAX_CODE_POINT));
+    }
+
+    @Test
+    public void test_universalString() {
+        // 各重载方法与接受IntPredicate的方法结果一致
+        CodePointClass cls = CodePointClass.ASCII_WHITESPACE_OR_QUOTES.union(CodePointClass.anyOf("中"));
+        IntPredicate predicate = codePoint -> UniversalString.isWhitespaceOrQuotes(codePoint) || codePoint == '中';
+        Random random = new Random(21);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(12); i > 0; i--) {
+                sb.append(" '\"a中b,\t".charAt(random.nextInt(8)));
+            }
+            String input = sb.toString();
+            boolean leading = random.nextBoolean(), trailing = random.nextBoolean();
+            assertEquals(UniversalString.trim(input, leading, trailing, predicate), UniversalString.trim(input, leading, trailing, cls));
+            assertEquals(UniversalString.clean(input, predicate), UniversalString.clean(input, cls));
+            assertArrayEquals(UniversalString.asCharacters(input, predicate), UniversalString.asCharacters(input, cls));
+            assertEquals(UniversalString.split(true, ",", null, null, null, null, predicate, input),
+                    UniversalString.split(true, ",", null, null, null, null, cls, input));
+            IndexBounds expected = UniversalString.calculateTrimBounds(input, leading, trailing, predicate);
+            IndexBounds actual = UniversalString.calculateTrimBounds(input, leading, trailing, cls);
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            if (!expected.isEmpty()) {
+                assertEquals(expected.getStartInclusive(), actual.getStartInclusive());
+                assertEquals(expected.getEndExclusive(), actual.getEndExclusive());
+            }
+        }
+        // 为null时使用默认的空白字符
+        assertEquals("a", UniversalString.trim(" a ", true, true, (CodePointClass) null));
+    }
+
+    private static CodePointClass randomClass(Random random) {
+        CodePointClass result = CodePointClass.NONE;
+        for (int i = random.nextInt(4); i > 0; i--) {
+            int start = random.nextBoolean() ? random.nextInt(256) : random.nextInt(Character.MAX_CODE_POINT + 1);
+            int end = Math.min(Character.MAX_CODE_POINT, start + random.nextInt(random.nextBoolean() ? 10 : 100000));
+            result = result.union(CodePointClass.range(start, end));
+        }
+        return random.nextInt(5) == 0 ? result.negate() : result;
+    }
+}
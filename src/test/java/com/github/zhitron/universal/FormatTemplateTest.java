@@ -0,0 +1,95 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class FormatTemplateTest {
+
+    @Test
+    public void test_of() {
+        FormatTemplate template = UniversalString.compileFormat("this is \\{} for {} and {}", "{}");
+        assertEquals(2, template.getPlaceHolderCount());
+        assertEquals("{}", template.getPlaceHolder());
+        assertEquals("this is \\{} for {} and {}", template.getTemplate());
+
+        // 模板或占位符为空时不包含占位符
+        assertEquals(0, FormatTemplate.of(null, "{}").getPlaceHolderCount());
+        assertEquals("", FormatTemplate.of(null, "{}").format("a"));
+        assertEquals("a{}", FormatTemplate.of("a{}", null).format("b"));
+    }
+
+    @Test
+    public void test_format() {
+        FormatTemplate template = UniversalString.compileFormat("this is {} for {}", "{}");
+        assertEquals("this is a for b", template.format("a", "b"));
+        // 参数不足时保留占位符，多余的参数被忽略
+        assertEquals("this is a for {}", template.format("a"));
+        assertEquals("this is {} for {}", template.format((Object[]) null));
+        assertEquals("this is 1 for null", template.format(1, null, 3));
+        // 转义
+        assertEquals("this is {} for a", UniversalString.compileFormat("this is \\{} for {}", "{}").format("a", "b"));
+        assertEquals("this is \\a for b", UniversalString.compileFormat("this is \\\\{} for {}", "{}").format("a", "b"));
+    }
+
+    @Test
+    public void test_formatTo() throws IOException {
+        FormatTemplate template = UniversalString.compileFormat("[{}:{}]", "{}");
+        StringBuilder sb = new StringBuilder("x");
+        assertSame(sb, template.formatTo(sb, "a", 1));
+        assertEquals("x[a:1]", sb.toString());
+        StringWriter writer = new StringWriter();
+        template.formatTo(writer, "b");
+        assertEquals("[b:{}]", writer.toString());
+    }
+
+    @Test
+    public void test_format_random() {
+        // 与逐次查找占位符的实现比较
+        Random random = new Random(18);
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                sb.append("ab\\{}".charAt(random.nextInt(5)));
+            }
+            String text = sb.toString();
+            Object[] args = new Object[random.nextInt(4)];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = i;
+            }
+            assertEquals(text, naiveFormat(text, "{}", args), UniversalString.compileFormat(text, "{}").format(args));
+            assertEquals(text, naiveFormat(text, "{}", args), UniversalString.format(text, "{}", args));
+        }
+    }
+
+    private static String naiveFormat(String template, String placeHolder, Object... args) {
+        StringBuilder sb = new StringBuilder();
+        int handledPosition = 0, argIndex = 0;
+        while (handledPosition < template.length()) {
+            int delimIndex = template.indexOf(placeHolder, handledPosition);
+            if (delimIndex == -1) {
+                sb.append(template, handledPosition, template.length());
+                break;
+            }
+            int slashCount = 0;
+            for (int pos = delimIndex - 1; pos > 0 && template.charAt(pos) == '\\'; pos--) {
+                slashCount++;
+            }
+            if (slashCount % 2 == 1) {
+                sb.append(template, handledPosition, delimIndex - 1).append(placeHolder);
+            } else {
+                sb.append(template, handledPosition, delimIndex - (slashCount == 0 ? 0 : slashCount - 1));
+                sb.append(argIndex < args.length ? String.valueOf(args[argIndex++]) : placeHolder);
+            }
+            handledPosition = delimIndex + placeHolder.length();
+        }
+        return sb.toString();
+    }
+}
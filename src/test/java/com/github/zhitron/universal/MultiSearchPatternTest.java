@@ -0,0 +1,267 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class MultiSearchPatternTest {
+
+    @Test
+    public void test_of() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(true, "ab", null, "", new StringBuilder("cd"));
+        assertEquals(2, pattern.size());
+        assertArrayEquals(new String[]{"ab", "cd"}, pattern.getTargets());
+        assertTrue(pattern.isIgnoreCase());
+
+        // 没有有效目标时不移除任何内容
+        MultiSearchPattern empty = MultiSearchPattern.of(false, (CharSequence[]) null);
+        assertEquals(0, empty.size());
+        assertEquals("abc", empty.clean("abc"));
+    }
+
+    @Test
+    public void test_clean() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(false, "ab", "aba");
+        // 同一位置优先移除最长的目标
+        assertEquals("bc", pattern.clean("abababc"));
+        assertEquals("", pattern.clean(null));
+        assertEquals("", pattern.clean(""));
+        assertEquals("xyz", pattern.clean("xyz"));
+
+        // 最左的匹配优先于更长但起始位置更靠右的匹配
+        assertEquals("d", UniversalString.compileMulti(false, "ab", "bcd", "c").clean("abcd"));
+        assertEquals("da", UniversalString.compileMulti(false, "bcd", "abc").clean("abcda"));
+        // 一个目标是另一个目标的后缀
+        assertEquals("x", UniversalString.compileMulti(false, "b", "abc").clean("abcxb"));
+
+        // 忽略大小写
+        assertEquals("xy", UniversalString.compileMulti(true, "ab", "CD").clean("xABcdy"));
+        assertEquals("xABy", UniversalString.compileMulti(false, "ab").clean("xABy"));
+
+        // 非ASCII字符
+        assertEquals("，", UniversalString.compileMulti(false, "你好", "世界").clean("你好，世界"));
+    }
+
+    @Test
+    public void test_isContainAny() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(true, "error", "fatal", "panic");
+        assertTrue(pattern.isContainAny("[FATAL] disk full"));
+        assertTrue(pattern.isContainAny("kernel panic"));
+        assertFalse(pattern.isContainAny("all good"));
+        assertFalse(pattern.isContainAny(""));
+        assertFalse(pattern.isContainAny(null));
+        assertFalse(MultiSearchPattern.of(false).isContainAny("abc"));
+    }
+
+    @Test
+    public void test_isContainAll() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(false, "he", "she", "his", "hers");
+        assertTrue(pattern.isContainAll("ushers his"));
+        assertFalse(pattern.isContainAll("ushers"));
+        // 重复的目标只需要出现一次
+        assertTrue(UniversalString.compileMulti(false, "ab", "ab", "b").isContainAll("xab"));
+        assertFalse(pattern.isContainAll(null));
+        assertFalse(MultiSearchPattern.of(false).isContainAll("abc"));
+    }
+
+    @Test
+    public void test_matchedTargets() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(false, "he", "she", "his", "hers", "he");
+        BitSet matched = pattern.matchedTargets("ushers");
+        assertEquals("{0, 1, 3, 4}", matched.toString());
+        assertTrue(pattern.matchedTargets(null).isEmpty());
+        assertTrue(pattern.matchedTargets("xyz").isEmpty());
+    }
+
+    @Test
+    public void test_utf8() {
+        ByteBuffer input = ByteBuffer.wrap("用户登录 LOGIN 成功".getBytes(StandardCharsets.UTF_8));
+        MultiSearchPattern pattern = UniversalString.compileMulti(true, "login", "成功", "失败");
+        assertTrue(pattern.isContainAnyUtf8(input));
+        assertFalse(pattern.isContainAllUtf8(input));
+        assertEquals("{0, 1}", pattern.matchedTargetsUtf8(input).toString());
+        assertEquals(0, input.position());
+        assertTrue(UniversalString.compileMulti(true, "LOGIN", "登录").isContainAllUtf8(input));
+        assertFalse(UniversalString.compileMulti(false, "login").isContainAnyUtf8(input));
+        assertFalse(pattern.isContainAnyUtf8(null));
+        assertTrue(pattern.matchedTargetsUtf8(null).isEmpty());
+    }
+
+    @Test
+    public void test_clean_random() {
+        Random random = new Random(20240601L);
+        for (int round = 0; round < 500; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String[] targets = new String[1 + random.nextInt(6)];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = randomString(random, 1 + random.nextInt(4));
+            }
+            String input = randomString(random, random.nextInt(60));
+            MultiSearchPattern pattern = UniversalString.compileMulti(ignoreCase, targets);
+            assertEquals(input + " " + String.join(",", targets), naiveClean(ignoreCase, input, targets), pattern.clean(input));
+            BitSet matched = pattern.matchedTargets(input);
+            for (int i = 0; i < targets.length; i++) {
+                assertEquals(UniversalString.isContain(ignoreCase, input, targets[i]), matched.get(i));
+            }
+            assertEquals(UniversalString.isContainAll(ignoreCase, input, targets), matched.cardinality() == targets.length);
+            assertEquals(UniversalString.isContainAny(ignoreCase, input, targets), !matched.isEmpty());
+        }
+    }
+
+    @Test
+    public void test_clean_stream() throws IOException {
+        StringWriter writer = new StringWriter();
+        assertEquals(2, UniversalString.clean(false, new StringReader("abababc"), writer, "ab", "aba"));
+        assertEquals("bc", writer.toString());
+        // 没有有效目标时原样复制
+        writer = new StringWriter();
+        assertEquals(0, UniversalString.clean(false, new StringReader("abc"), writer));
+        assertEquals("abc", writer.toString());
+
+        // 跨越缓冲区边界的匹配与内存中的结果一致
+        Random random = new Random(16);
+        for (int round = 0; round < 100; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String[] targets = new String[1 + random.nextInt(4)];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = randomString(random, 1 + random.nextInt(6));
+            }
+            String input = randomString(random, random.nextInt(round % 10 == 0 ? 30000 : 300));
+            MultiSearchPattern pattern = MultiSearchPattern.of(ignoreCase, targets);
+            writer = new StringWriter();
+            pattern.clean(SearchPatternTest.chunkedReader(input, random), writer);
+            assertEquals(pattern.clean(input), writer.toString());
+        }
+    }
+
+    @Test
+    public void test_scanner_readOnce() {
+        MultiSearchPattern pattern = UniversalString.compileMulti(false, "b", "bbbbbbbbbc");
+        // 没有匹配、稀疏匹配以及短匹配位于长目标前缀中的最坏情况，每个字符都只读取一次
+        CountingSequence input = new CountingSequence(MultiSearchPatternTest.repeat("a", 1000));
+        assertEquals(0, MultiSearchPatternTest.countMatches(pattern, input));
+        assertEquals(1000, input.reads);
+        input = new CountingSequence(MultiSearchPatternTest.repeat("aaaaaaaaab", 100));
+        assertEquals(100, MultiSearchPatternTest.countMatches(pattern, input));
+        assertEquals(1000, input.reads);
+        input = new CountingSequence(MultiSearchPatternTest.repeat("b", 1000));
+        assertEquals(1000, MultiSearchPatternTest.countMatches(pattern, input));
+        assertEquals(1000, input.reads);
+        assertEquals("", pattern.clean(MultiSearchPatternTest.repeat("b", 1000)));
+        // 跨越块边界的长匹配仍然是最长的
+        input = new CountingSequence(MultiSearchPatternTest.repeat("b", 250) + "bbbbbbbbbc" + MultiSearchPatternTest.repeat("b", 5));
+        assertEquals(256, MultiSearchPatternTest.countMatches(pattern, input));
+        assertEquals(265, input.reads);
+        assertEquals("", pattern.clean(input));
+    }
+
+    @Test
+    public void test_scanner_longTargets() {
+        // 目标长于块长度以及输入跨越多个块时，结果与朴素实现一致
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            String[] targets = new String[1 + random.nextInt(4)];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = MultiSearchPatternTest.randomString(random, 1 + random.nextInt(round % 2 == 0 ? 4 : 400));
+            }
+            String input = MultiSearchPatternTest.randomString(random, random.nextInt(2000));
+            if (round % 3 == 0) {
+                input = input + targets[0] + input;
+            }
+            boolean ignoreCase = random.nextBoolean();
+            MultiSearchPattern pattern = UniversalString.compileMulti(ignoreCase, targets);
+            assertEquals(MultiSearchPatternTest.naiveClean(ignoreCase, input, targets), pattern.clean(input));
+        }
+    }
+
+    private static int countMatches(MultiSearchPattern pattern, CharSequence input) {
+        MultiSearchPattern.Scanner scanner = pattern.scanner();
+        int[] match = new int[3];
+        int count = 0;
+        for (int position = 0; scanner.find(input, position, input.length(), match); position = match[1]) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder sb = new StringBuilder(value.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abAB".charAt(random.nextInt(4));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 朴素实现：在每个位置尝试所有目标，取最长的匹配
+     */
+    private static String naiveClean(boolean ignoreCase, String input, String[] targets) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < input.length(); ) {
+            int longest = 0;
+            for (String target : targets) {
+                if (target.length() > longest && input.regionMatches(ignoreCase, i, target, 0, target.length())) {
+                    longest = target.length();
+                }
+            }
+            if (longest == 0) {
+                sb.append(input.charAt(i++));
+            } else {
+                i += longest;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 统计charAt调用次数的字符序列
+     */
+    private static final class CountingSequence implements CharSequence {
+        private final String value;
+        private int reads;
+
+        CountingSequence(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
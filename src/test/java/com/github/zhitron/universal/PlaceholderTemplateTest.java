@@ -0,0 +1,77 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class PlaceholderTemplateTest {
+
+    @Test
+    public void test_of() {
+        PlaceholderTemplate template = UniversalString.compilePlaceholder("${a}-${b.c}-${a}-${}-${x{y}-$${d}");
+        assertArrayEquals(new String[]{"a", "b.c", "a", "d"}, template.getKeys());
+        assertEquals(0, PlaceholderTemplate.of(null).getKeys().length);
+        assertEquals("", PlaceholderTemplate.of(null).render(key -> "x", true));
+    }
+
+    @Test
+    public void test_render() {
+        PlaceholderTemplate template = UniversalString.compilePlaceholder("Hello, ${name}! Price: ${price}");
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "World");
+        params.put("price", "$100\\");
+        // 替换内容不需要转义
+        assertEquals("Hello, World! Price: $100\\", template.render(params, true));
+        assertEquals("Hello, null! Price: null", template.render((Map<?, ?>) null, false));
+        assertEquals("Hello, ! Price: ", template.render(key -> null, true));
+        // 函数为null时返回原始模板
+        assertSame(template.getTemplate(), template.render((Function<String, String>) null, true));
+    }
+
+    @Test
+    public void test_renderTo() throws IOException {
+        PlaceholderTemplate template = UniversalString.compilePlaceholder("${a}+${b}");
+        StringBuilder sb = new StringBuilder("=");
+        assertSame(sb, template.renderTo(sb, String::toUpperCase, true));
+        assertEquals("=A+B", sb.toString());
+        StringWriter writer = new StringWriter();
+        template.renderTo(writer, key -> key.equals("a") ? "1" : null, false);
+        assertEquals("1+null", writer.toString());
+    }
+
+    @Test
+    public void test_render_random() {
+        // 与原有的正则表达式实现比较
+        Pattern pattern = Pattern.compile("\\$\\{[^{}$]+}");
+        Random random = new Random(19);
+        for (int round = 0; round < 3000; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                sb.append("ab${}$".charAt(random.nextInt(6)));
+            }
+            String text = sb.toString();
+            boolean ignoreNull = random.nextBoolean();
+            Function<String, String> function = key -> key.startsWith("a") ? null : "<" + key + ">";
+            StringBuffer expected = new StringBuffer();
+            Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                String value = function.apply(matcher.group().substring(2, matcher.group().length() - 1));
+                matcher.appendReplacement(expected, Matcher.quoteReplacement(value != null ? value : ignoreNull ? "" : "null"));
+            }
+            matcher.appendTail(expected);
+            assertEquals(text, expected.toString(), UniversalString.replacePlaceholder(text, function, ignoreNull));
+        }
+    }
+}
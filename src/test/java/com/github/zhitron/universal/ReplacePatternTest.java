@@ -0,0 +1,134 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class ReplacePatternTest {
+
+    @Test
+    public void test_of() {
+        Map<CharSequence, CharSequence> map = new LinkedHashMap<>();
+        map.put("ab", "x");
+        map.put(null, "y");
+        map.put("", "z");
+        map.put(new StringBuilder("cd"), null);
+        ReplacePattern pattern = UniversalString.compileReplace(true, map);
+        assertTrue(pattern.isIgnoreCase());
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("ab", "x");
+        expected.put("cd", null);
+        assertEquals(expected, pattern.getReplacements());
+
+        // 没有有效目标时原样返回
+        ReplacePattern empty = ReplacePattern.of(false, null);
+        assertEquals("abc", empty.replace("abc"));
+        assertEquals("", empty.replace(null));
+    }
+
+    @Test
+    public void test_replace() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("&", "&amp;");
+        map.put("<", "&lt;");
+        map.put(">", "&gt;");
+        ReplacePattern pattern = UniversalString.compileReplace(false, map);
+        // 替换后的内容不会再次参与匹配
+        assertEquals("a&lt;b&gt;&amp;c", pattern.replace("a<b>&c"));
+        assertEquals("", pattern.replace(""));
+        assertEquals("xyz", pattern.replace("xyz"));
+
+        // 同一位置优先替换最长的目标，最左的匹配优先于起始位置更靠右的匹配
+        map = new HashMap<>();
+        map.put("ab", "1");
+        map.put("abc", "2");
+        map.put("bcd", "3");
+        assertEquals("2d", UniversalString.replaceEach(false, "abcd", map));
+        assertEquals("13", UniversalString.replaceEach(false, "abbcd", map));
+
+        // 互相交换的替换一次完成
+        map = new HashMap<>();
+        map.put("a", "b");
+        map.put("b", "a");
+        assertEquals("baab", UniversalString.replaceEach(false, "abba", map));
+
+        // 值为null时删除目标
+        map = new HashMap<>();
+        map.put("-", null);
+        assertEquals("abc", UniversalString.replaceEach(false, "a-b--c", map));
+    }
+
+    @Test
+    public void test_replace_ignoreCase() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("Hello", "Hi");
+        map.put("hello", "Hey");
+        map.put("WORLD", "Earth");
+        // 忽略大小写时重复的目标以第一个为准
+        assertEquals("Hi, Earth! Hi", UniversalString.replaceEach(true, "hello, World! HELLO", map));
+        assertEquals("Hey, World! HELLO", UniversalString.replaceEach(false, "hello, World! HELLO", map));
+        assertEquals("abc", UniversalString.replaceEach(true, "abc", null));
+        assertEquals("", UniversalString.replaceEach(true, null, map));
+    }
+
+    @Test
+    public void test_replace_stream() throws IOException {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("ab", "1");
+        map.put("abc", "2");
+        map.put("bcd", "3");
+        ReplacePattern pattern = UniversalString.compileReplace(false, map);
+        StringBuilder input = new StringBuilder();
+        Random random = new Random(16);
+        for (int i = 0; i < 50000; i++) {
+            input.append("abcdx".charAt(random.nextInt(5)));
+        }
+        StringWriter writer = new StringWriter();
+        pattern.replace(SearchPatternTest.chunkedReader(input.toString(), random), writer);
+        assertEquals(pattern.replace(input), writer.toString());
+    }
+
+    @Test
+    public void test_replace_random() {
+        // 与逐位置朴素实现比较：每个位置选择最长的目标
+        Random random = new Random(15);
+        String[] targets = {"a", "ab", "ba", "bab", "cc", "abc"};
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < targets.length; i++) {
+            map.put(targets[i], "<" + i + ">");
+        }
+        ReplacePattern pattern = ReplacePattern.of(false, map);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder input = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                input.append((char) ('a' + random.nextInt(3)));
+            }
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < input.length(); ) {
+                int best = -1;
+                for (int t = 0; t < targets.length; t++) {
+                    if (input.indexOf(targets[t], i) == i && (best < 0 || targets[t].length() > targets[best].length())) {
+                        best = t;
+                    }
+                }
+                if (best < 0) {
+                    expected.append(input.charAt(i++));
+                } else {
+                    expected.append(map.get(targets[best]));
+                    i += targets[best].length();
+                }
+            }
+            assertEquals(input.toString(), expected.toString(), pattern.replace(input));
+        }
+    }
+}
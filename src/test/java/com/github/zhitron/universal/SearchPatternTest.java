@@ -0,0 +1,409 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class SearchPatternTest {
+
+    @Test
+    public void test_of() {
+        SearchPattern pattern = UniversalString.compile(true, new StringBuilder("Hello"));
+        assertEquals("Hello", pattern.getTarget());
+        assertTrue(pattern.isIgnoreCase());
+        assertEquals(5, pattern.length());
+
+        try {
+            SearchPattern.of(false, "");
+            fail("Expected IllegalArgumentException for empty target");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+        try {
+            UniversalString.compile(false, null);
+            fail("Expected IllegalArgumentException for null target");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+    }
+
+    @Test
+    public void test_lazyTables() throws ReflectiveOperationException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("abcdefgh");
+        }
+        String input = text.append("needle-in-haystack").toString();
+        // 短目标只使用首字符扫描，不生成任何表
+        SearchPattern shortPattern = UniversalString.compile(false, "ne");
+        assertEquals(800, shortPattern.indexOf(input));
+        assertNull(SearchPatternTest.table(shortPattern, "next"));
+        assertNull(SearchPatternTest.table(shortPattern, "shift"));
+        assertNull(SearchPatternTest.table(shortPattern, "reverseNext"));
+        // 只正向查找时只生成失配表和跳跃表，不生成反向失配表
+        SearchPattern pattern = UniversalString.compile(false, "needle-in");
+        assertEquals(800, pattern.indexOf(input));
+        assertEquals(1, pattern.countOccurrences(input));
+        assertNotNull(SearchPatternTest.table(pattern, "next"));
+        assertNotNull(SearchPatternTest.table(pattern, "shift"));
+        assertNull(SearchPatternTest.table(pattern, "reverseNext"));
+        // 反向查找时才生成反向失配表
+        assertEquals(800, pattern.lastIndexOf(input));
+        assertNotNull(SearchPatternTest.table(pattern, "reverseNext"));
+    }
+
+    private static Object table(SearchPattern pattern, String name) throws ReflectiveOperationException {
+        Field field = SearchPattern.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(pattern);
+    }
+
+    @Test
+    public void test_indexOf() {
+        SearchPattern pattern = UniversalString.compile(true, "content-type");
+        assertEquals(19, pattern.indexOf("Accept: text/html, Content-Type: text/plain"));
+        assertEquals(0, pattern.indexOf("CONTENT-TYPE"));
+        assertEquals(-1, pattern.indexOf("content-length: 0"));
+        assertEquals(-1, pattern.indexOf(null));
+
+        // 同一个模式重复用于不同的输入
+        SearchPattern ab = UniversalString.compile(false, "ab");
+        assertEquals(2, ab.indexOf("xxab"));
+        assertEquals(-1, ab.indexOf("xxAB"));
+        assertEquals(-1, ab.indexOf("xxab", 0, 3));
+        assertEquals(9, ab.indexOf("xxxxxxab ab", 0, 11, 2));
+        assertEquals(-1, ab.indexOf("ab", 0, 2, 2));
+
+        // 忽略大小写时ASCII字符查表折叠，非ASCII字符使用完整的大小写折叠
+        SearchPattern greek = UniversalString.compile(true, "ΣΟΦΙΑ-Straße");
+        assertEquals(4, greek.indexOf("xyz σοφια-STRAßE"));
+        assertEquals(4, greek.lastIndexOf("xyz σοφια-STRAßE"));
+        assertEquals(1, greek.countOccurrences("σοφια-straße"));
+        assertEquals(-1, greek.indexOf("σοφια-strasse"));
+    }
+
+    @Test
+    public void test_lastIndexOf() {
+        SearchPattern pattern = UniversalString.compile(false, "hello");
+        String input = "hello world hello universe";
+        assertEquals(12, pattern.lastIndexOf(input));
+        assertEquals(0, pattern.lastIndexOf(input, 0, 16));
+        assertEquals(0, pattern.lastIndexOf(input, 0, input.length(), 2));
+        assertEquals(-1, pattern.lastIndexOf(input, 0, input.length(), 3));
+        assertEquals(-1, pattern.lastIndexOf(input, 0, input.length(), 0));
+
+        // 各次出现互不重叠，从后向前依次匹配
+        SearchPattern aba = UniversalString.compile(true, "aba");
+        assertEquals(4, aba.lastIndexOf("ababABA"));
+        assertEquals(0, aba.lastIndexOf("ababABA", 0, 7, 2));
+        assertEquals(-1, aba.lastIndexOf("ababABA", 0, 7, 3));
+        assertEquals(2, aba.lastIndexOf(new StringBuilder("ababABA"), 1, 6));
+    }
+
+    @Test
+    public void test_lastIndexOf_random() {
+        Random random = new Random(20240603L);
+        for (int round = 0; round < 2000; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String target = randomString(random, 1 + random.nextInt(5), 2);
+            String input = randomString(random, random.nextInt(60), 2 + random.nextInt(3));
+            int occurrence = 1 + random.nextInt(4);
+            // 朴素实现：每次以上一次匹配的起始位置作为新的结束位置
+            int expected = input.length();
+            for (int found = 0; found < occurrence && expected >= 0; found++) {
+                int end = expected;
+                expected = -1;
+                for (int i = end - target.length(); i >= 0; i--) {
+                    if (input.regionMatches(ignoreCase, i, target, 0, target.length())) {
+                        expected = i;
+                        break;
+                    }
+                }
+            }
+            SearchPattern pattern = UniversalString.compile(ignoreCase, target);
+            assertEquals(input + " " + target + " " + occurrence, expected, pattern.lastIndexOf(input, 0, input.length(), occurrence));
+        }
+    }
+
+    @Test
+    public void test_countOccurrences() {
+        SearchPattern pattern = UniversalString.compile(true, "aa");
+        assertEquals(2, pattern.countOccurrences("aAaA"));
+        assertEquals(1, pattern.countOccurrences(new StringBuilder("aab")));
+        assertEquals(0, pattern.countOccurrences("a"));
+        assertEquals(0, pattern.countOccurrences(null));
+
+        // 只统计指定范围内的出现次数
+        StringBuilder sb = new StringBuilder("aa--AA--aa");
+        assertEquals(1, pattern.countOccurrences(sb, 2, 8));
+        assertEquals(0, pattern.countOccurrences(sb, 2, 5));
+        assertEquals(0, pattern.countOccurrences(sb, -1, 5));
+    }
+
+    @Test
+    public void test_isContain() {
+        SearchPattern pattern = UniversalString.compile(false, "world");
+        assertTrue(pattern.isContain("hello world"));
+        assertFalse(pattern.isContain("hello World"));
+        assertFalse(pattern.isContain(""));
+        assertFalse(pattern.isContain(null));
+    }
+
+    @Test
+    public void test_replace() {
+        SearchPattern pattern = UniversalString.compile(true, "hello");
+        assertEquals("Hi World Hi", pattern.replace("Hello World HELLO", "Hi", -1));
+        assertEquals("Hi World HELLO", pattern.replace("Hello World HELLO", "Hi", 1));
+        assertEquals(" World ", pattern.replace("Hello World HELLO", null, -1));
+        assertEquals("Hello", pattern.replace("Hello", "Hi", 0));
+        assertEquals("", pattern.replace(null, "Hi", -1));
+    }
+
+    @Test
+    public void test_iterator() {
+        SearchPattern pattern = UniversalString.compile(true, "aa");
+        // 重叠模式与非重叠模式
+        assertArrayEquals(new int[]{0, 1, 2, 5}, pattern.stream("aAaAxaa", true).toArray());
+        assertArrayEquals(new int[]{0, 2, 5}, pattern.stream("aAaAxaa", false).toArray());
+        assertEquals(pattern.countOccurrences("aAaAxaa"), pattern.stream("aAaAxaa", false).count());
+        assertEquals(0, pattern.stream(null, true).count());
+
+        // 指定范围内迭代
+        PrimitiveIterator.OfInt iterator = pattern.iterator(new StringBuilder("aaaaa"), 1, 4, true);
+        assertTrue(iterator.hasNext());
+        assertTrue(iterator.hasNext());
+        assertEquals(1, iterator.nextInt());
+        assertEquals(2, iterator.nextInt());
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.nextInt();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // 预期异常
+        }
+        assertFalse(pattern.iterator("aaaaa", 3, 2, false).hasNext());
+
+        // 查找第n次出现的位置
+        assertEquals(9, UniversalString.compile(false, "ab").stream("xxxxxxab ab", false).skip(1).findFirst().orElse(-1));
+    }
+
+    @Test
+    public void test_utf8() {
+        byte[] bytes = "日志: 错误 Error, 错误 ERROR".getBytes(StandardCharsets.UTF_8);
+        SearchPattern pattern = UniversalString.compile(true, "error");
+        // 返回字节下标，"日志: 错误 "占15个字节
+        assertEquals(15, pattern.indexOfUtf8(ByteBuffer.wrap(bytes)));
+        assertEquals(2, pattern.countOccurrencesUtf8(ByteBuffer.wrap(bytes)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(15, pattern.indexOfUtf8(direct));
+        assertEquals(0, direct.position());
+
+        // 只在position到limit之间查找，返回绝对下标
+        direct.position(16);
+        assertEquals(29, pattern.indexOfUtf8(direct));
+        assertEquals(1, pattern.countOccurrencesUtf8(direct));
+
+        // 非ASCII目标按字节精确匹配
+        SearchPattern chinese = UniversalString.compile(false, "错误");
+        assertEquals(8, chinese.indexOfUtf8(ByteBuffer.wrap(bytes)));
+        assertEquals(2, chinese.countOccurrencesUtf8(ByteBuffer.wrap(bytes)));
+        assertFalse(UniversalString.compile(false, "error").isContainUtf8(ByteBuffer.wrap(bytes)));
+        assertFalse(pattern.isContainUtf8(null));
+        assertEquals(-1, pattern.indexOfUtf8(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void test_utf8_random() {
+        Random random = new Random(20240606L);
+        for (int round = 0; round < 1000; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String target = randomString(random, 1 + random.nextInt(3), 2 + random.nextInt(3)).replace('B', '错');
+            String input = randomString(random, random.nextInt(200), 4).replace('B', '错');
+            int start = input.isEmpty() ? 0 : random.nextInt(input.length());
+            String expected = input.substring(start);
+            int expectedIndex = naiveIndexOf(ignoreCase, expected, 0, expected.length(), target);
+            byte[] prefix = input.substring(0, start).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+            // 大端与小端字节序下SWAR扫描的结果一致
+            buffer.order(random.nextBoolean() ? java.nio.ByteOrder.BIG_ENDIAN : java.nio.ByteOrder.LITTLE_ENDIAN);
+            buffer.position(prefix.length);
+            int actual = UniversalString.compile(ignoreCase, target).indexOfUtf8(buffer);
+            int expectedBytes = expectedIndex < 0 ? -1 : prefix.length + expected.substring(0, expectedIndex).getBytes(StandardCharsets.UTF_8).length;
+            assertEquals(input + " " + target, expectedBytes, actual);
+        }
+    }
+
+    @Test
+    public void test_batch() {
+        SearchPattern pattern = UniversalString.compile(true, "error");
+        CharSequence[] inputs = {"ERROR: disk", null, "ok", new StringBuilder("an error"), ""};
+        assertArrayEquals(new int[]{0, -1, -1, 3, -1}, pattern.batchIndexOf(inputs, false));
+        assertArrayEquals(new int[]{0, -1, -1, 3, -1}, pattern.batchIndexOf(Arrays.asList(inputs), true));
+        assertEquals("{0, 3}", pattern.batchIsContain(inputs, false).toString());
+        assertEquals(0, pattern.batchIndexOf((CharSequence[]) null, false).length);
+        assertTrue(pattern.batchIsContain((List<String>) null, true).isEmpty());
+
+        // 并行处理与顺序处理结果一致
+        Random random = new Random(20240605L);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            rows.add(randomString(random, random.nextInt(40), 4));
+        }
+        SearchPattern ab = UniversalString.compile(false, "abBA");
+        assertArrayEquals(ab.batchIndexOf(rows, false), ab.batchIndexOf(rows, true));
+        assertEquals(ab.batchIsContain(rows, false), ab.batchIsContain(rows, true));
+    }
+
+    @Test
+    public void test_parallel() {
+        Random random = new Random(20240604L);
+        char[] chars = new char[1 << 19];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = "abcd".charAt(random.nextInt(4));
+        }
+        String input = new String(chars);
+        for (String target : new String[]{"abc", "dcba", "abab", "aa", "abcdabcdab"}) {
+            SearchPattern pattern = UniversalString.compile(false, target);
+            assertEquals(target, pattern.countOccurrences(input), pattern.parallelCountOccurrences(input));
+            assertEquals(target, pattern.indexOf(input), pattern.parallelIndexOf(input));
+        }
+        // 匹配跨越分块边界以及未找到的情况
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < chars.length; i++) {
+            sb.append('x');
+        }
+        SearchPattern pattern = UniversalString.compile(true, "needle");
+        assertEquals(-1, pattern.parallelIndexOf(sb));
+        assertEquals(0, pattern.parallelCountOccurrences(sb));
+        sb.replace((1 << 16) - 3, (1 << 16) + 3, "NEEDLE");
+        sb.replace(sb.length() - 6, sb.length(), "needle");
+        assertEquals((1 << 16) - 3, pattern.parallelIndexOf(sb));
+        assertEquals(2, pattern.parallelCountOccurrences(sb));
+        assertEquals(0, pattern.parallelCountOccurrences(null));
+        assertEquals(-1, pattern.parallelIndexOf("short"));
+    }
+
+    @Test
+    public void test_getStrategy() {
+        assertEquals(SearchStrategy.FIRST_CHAR, UniversalString.compile(false, "ab").getStrategy(1 << 20));
+        assertEquals(SearchStrategy.FIRST_CHAR, UniversalString.compile(false, "content-type").getStrategy(32));
+        assertEquals(SearchStrategy.HORSPOOL, UniversalString.compile(true, "content-type").getStrategy(1 << 20));
+        // 周期性很强的目标使用KMP
+        assertEquals(SearchStrategy.KMP, UniversalString.compile(false, "aaaaaaaa").getStrategy(1 << 20));
+        assertEquals(SearchStrategy.KMP, UniversalString.compile(false, "abababab").getStrategy(1 << 20));
+    }
+
+    @Test
+    public void test_strategy_random() {
+        Random random = new Random(20240602L);
+        for (int round = 0; round < 2000; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String target = randomString(random, 1 + random.nextInt(8), 2 + random.nextInt(3));
+            String input = randomString(random, random.nextInt(300), 2 + random.nextInt(3));
+            SearchPattern pattern = UniversalString.compile(ignoreCase, target);
+            int start = input.isEmpty() ? 0 : random.nextInt(input.length());
+            int expected = naiveIndexOf(ignoreCase, input, start, input.length(), target);
+            assertEquals(input + " " + target, expected, pattern.indexOf(input, start, input.length()));
+        }
+        // Horspool最坏情况的输入仍能得到正确结果
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append('a');
+        }
+        SearchPattern pattern = UniversalString.compile(false, "baaaaaaaaa");
+        assertEquals(SearchStrategy.HORSPOOL, pattern.getStrategy(sb.length()));
+        assertEquals(-1, pattern.indexOf(sb));
+        sb.setCharAt(5000, 'b');
+        assertEquals(5000, pattern.indexOf(sb));
+    }
+
+    @Test
+    public void test_replace_stream() throws IOException {
+        SearchPattern pattern = UniversalString.compile(true, "aba");
+        StringWriter writer = new StringWriter();
+        assertEquals(2, pattern.replace(new StringReader("xABAyabaz"), writer, "-", -1));
+        assertEquals("x-y-z", writer.toString());
+        // 输入为null时视为空输入
+        assertEquals(0, pattern.replace(null, writer, "-", -1));
+        try {
+            pattern.replace(new StringReader("aba"), null, "-", -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // 目标为空或替换次数为0时原样复制，不编译查找模式
+        long compiled = SearchPattern.COMPILED_COUNT.sum() + MultiSearchPattern.COMPILED_COUNT.sum();
+        writer = new StringWriter();
+        assertEquals(0, UniversalString.replace(false, new StringReader("aba"), writer, "", "-", -1));
+        assertEquals(0, UniversalString.replace(false, new StringReader("|aba"), writer, null, "-", -1));
+        assertEquals(0, UniversalString.replace(false, new StringReader("|aba"), writer, "a", "-", 0));
+        assertEquals(0, UniversalString.replace(false, null, writer, null, "-", -1));
+        assertEquals("aba|aba|aba", writer.toString());
+        assertEquals(compiled, SearchPattern.COMPILED_COUNT.sum() + MultiSearchPattern.COMPILED_COUNT.sum());
+        try {
+            UniversalString.replace(false, new StringReader("aba"), null, null, "-", -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // 每次只读取很少的字符，并且输入跨越多个缓冲区，结果与内存中的替换一致
+        Random random = new Random(16);
+        for (int round = 0; round < 200; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            String target = randomString(random, 1 + random.nextInt(8), 2 + random.nextInt(3));
+            String input = randomString(random, random.nextInt(round % 10 == 0 ? 30000 : 300), 2 + random.nextInt(3));
+            int replaceCount = random.nextInt(5) - 1;
+            pattern = UniversalString.compile(ignoreCase, target);
+            String expected = pattern.replace(input, "<>", replaceCount);
+            writer = new StringWriter();
+            long count = UniversalString.replace(ignoreCase, chunkedReader(input, random), writer, target, "<>", replaceCount);
+            assertEquals(target + " " + input, expected, writer.toString());
+            assertEquals(expected.length(), input.length() + count * (2 - target.length()));
+        }
+    }
+
+    static Reader chunkedReader(String input, Random random) {
+        return new FilterReader(new StringReader(input)) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1 + random.nextInt(random.nextBoolean() ? 7 : 10000)));
+            }
+        };
+    }
+
+    private static String randomString(Random random, int length, int alphabet) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abAB".charAt(random.nextInt(alphabet));
+        }
+        return new String(chars);
+    }
+
+    private static int naiveIndexOf(boolean ignoreCase, String input, int start, int end, String target) {
+        for (int i = start; i + target.length() <= end; i++) {
+            if (input.regionMatches(ignoreCase, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
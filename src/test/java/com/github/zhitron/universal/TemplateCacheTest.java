@@ -0,0 +1,104 @@
+package com.github.zhitron.universal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author zhitron
+ */
+public class TemplateCacheTest {
+
+    @Test
+    public void test_get() {
+        TemplateCache<PlaceholderTemplate> cache = new TemplateCache<>(2);
+        AtomicInteger loads = new AtomicInteger();
+        PlaceholderTemplate a = cache.get("${a}", key -> {
+            loads.incrementAndGet();
+            return PlaceholderTemplate.of(key);
+        });
+        assertSame(a, cache.get("${a}", PlaceholderTemplate::of));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 超出容量时淘汰最久未使用的模板
+        cache.get("${b}", PlaceholderTemplate::of);
+        cache.get("${a}", PlaceholderTemplate::of);
+        cache.get("${c}", PlaceholderTemplate::of);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.get("${a}", PlaceholderTemplate::of));
+        assertEquals(3, cache.getHitCount());
+        cache.get("${b}", PlaceholderTemplate::of);
+        assertEquals(4, cache.getMissCount());
+
+        // 缩小容量时立即淘汰
+        cache.setCapacity(1);
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getEvictionCount());
+        cache.resetStatistics();
+        assertEquals(0, cache.getHitCount());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_capacity() {
+        // 容量为0时不缓存任何模板
+        TemplateCache<FormatTemplate> cache = new TemplateCache<>(0);
+        FormatTemplate first = cache.get("{}", key -> FormatTemplate.of(key, "{}"));
+        assertNotSame(first, cache.get("{}", key -> FormatTemplate.of(key, "{}")));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+        try {
+            new TemplateCache<>(-1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void test_concurrent() {
+        TemplateCache<PlaceholderTemplate> cache = new TemplateCache<>(16);
+        List<String> results = new ArrayList<>();
+        IntStream.range(0, 20000).parallel()
+                .mapToObj(i -> cache.get("${k" + i % 32 + "}", PlaceholderTemplate::of).render(key -> key, true))
+                .forEachOrdered(results::add);
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("k" + i % 32, results.get(i));
+        }
+        assertTrue(cache.size() <= 16);
+        assertEquals(20000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void test_universalString() {
+        // format和replacePlaceholder会自动复用缓存的模板
+        TemplateCache<FormatTemplate> formatCache = UniversalString.getFormatTemplateCache();
+        long hits = formatCache.getHitCount();
+        assertEquals("a=1", UniversalString.format("a={}", "{}", 1));
+        assertEquals("a=2", UniversalString.format("a={}", "{}", 2));
+        assertTrue(formatCache.getHitCount() > hits);
+        // 同一模板使用不同的占位符时各自缓存，交替使用时只有第一次未命中
+        hits = formatCache.getHitCount();
+        long misses = formatCache.getMissCount();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("b=" + i + "|%s", UniversalString.format("b={}|%s", "{}", i));
+            assertEquals("b={}|" + i, UniversalString.format("b={}|%s", "%s", i));
+        }
+        assertEquals(2, formatCache.getMissCount() - misses);
+        assertEquals(18, formatCache.getHitCount() - hits);
+
+        TemplateCache<PlaceholderTemplate> placeholderCache = UniversalString.getPlaceholderTemplateCache();
+        hits = placeholderCache.getHitCount();
+        assertEquals("x=1", UniversalString.replacePlaceholder("x=${x}", key -> "1", true));
+        assertEquals("x=2", UniversalString.replacePlaceholder("x=${x}", key -> "2", true));
+        assertTrue(placeholderCache.getHitCount() > hits);
+    }
+}
@@ -2,13 +2,25 @@ package com.github.zhitron.universal;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
 import java.util.function.Function;
 import java.util.function.IntPredicate;
 import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
 
@@ -92,6 +104,21 @@ public class UniversalStringTest {
         // 测试非ASCII字符
         assertFalse("128不是ASCII字符", UniversalString.isAscii(128));
         assertFalse("200不是ASCII字符", UniversalString.isAscii(200));
+
+        // 测试字符序列
+        assertTrue(UniversalString.isAscii("GET /index.html HTTP/1.1"));
+        assertFalse(UniversalString.isAscii("GET /index.html HTTP/1.1 中"));
+        assertFalse(UniversalString.isAscii(new StringBuilder("abcdefgh\u00e9")));
+        assertFalse(UniversalString.isAscii((CharSequence) null));
+        assertFalse(UniversalString.isAscii(""));
+
+        // 测试字节缓冲区，只检查position到limit之间的字节
+        ByteBuffer buffer = ByteBuffer.wrap("中GET /index.html HTTP/1.1".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        assertFalse(UniversalString.isAscii(buffer));
+        buffer.position(3);
+        assertTrue(UniversalString.isAscii(buffer));
+        assertEquals(3, buffer.position());
+        assertFalse(UniversalString.isAscii((ByteBuffer) null));
     }
 
     @Test
@@ -422,6 +449,10 @@ public class UniversalStringTest {
         // 测试越界情况
         assertFalse(UniversalString.regionMatches(false, "hello", 10, "world", 0, 5));
         assertFalse(UniversalString.regionMatches(false, "hello", 0, "world", 10, 5));
+
+        // 测试非String类型的字符序列
+        assertTrue(UniversalString.regionMatches(true, new StringBuilder("xxHELLOxx"), 2, CharBuffer.wrap("hello"), 0, 5));
+        assertFalse(UniversalString.regionMatches(false, new StringBuilder("xxHELLOxx"), 2, "hello", 0, 5));
     }
 
     // ==================== 字符串修剪边界计算测试 ====================
@@ -495,6 +526,16 @@ public class UniversalStringTest {
 
         // 测试连续相同字符
         assertEquals(5, UniversalString.countOccurrences(false, "aaaaa", "a"));
+
+        // 测试非String类型的字符序列
+        assertEquals(2, UniversalString.countOccurrences(true, new StringBuilder("abcABCab"), "abc"));
+
+        // 测试指定范围内统计
+        assertEquals(1, UniversalString.countOccurrences(false, "ababab", 1, 5, "ab"));
+        assertEquals(2, UniversalString.countOccurrences(false, CharBuffer.wrap("xxababxx"), 2, 6, "ab"));
+        assertEquals(0, UniversalString.countOccurrences(false, "ababab", 0, 1, "ab"));
+        assertEquals(0, UniversalString.countOccurrences(false, "ababab", 4, 2, "ab"));
+        assertEquals(0, UniversalString.countOccurrences(false, null, 0, 1, "ab"));
     }
 
     // ==================== 字符串简写测试 ====================
@@ -590,6 +631,10 @@ public class UniversalStringTest {
         assertEquals("null字符串清理应该得到空字符串", "", UniversalString.clean(false, null, " "));
         assertEquals("目标字符为null时应该得到原字符串", "test", UniversalString.clean(false, "test", (CharSequence[]) null));
 
+        // 测试同一位置优先移除最长的目标，以及忽略大小写
+        assertEquals("bc", UniversalString.clean(false, "abababc", "ab", "aba"));
+        assertEquals("xy", UniversalString.clean(true, "xABy", "ab"));
+
         // 测试基于条件的清理
         IntPredicate isWhitespace = Character::isWhitespace;
         assertEquals("移除空白字符应该得到'helloworld'", "helloworld", UniversalString.clean(" hello world ", isWhitespace));
@@ -621,6 +666,30 @@ public class UniversalStringTest {
         // 测试null输入
         assertEquals(-1, UniversalString.indexOf(false, null, 0, 11, "hello"));
         assertEquals(-1, UniversalString.indexOf(false, "hello", 0, 5, null));
+
+        // 测试第n次出现从上一次匹配的末尾继续查找
+        assertEquals(9, UniversalString.indexOf(false, "xxxxxxab ab", 0, 11, "ab", 2));
+        assertEquals(2, UniversalString.indexOf(true, "aaAA", 0, 4, "aa", 2));
+
+        // 测试出现次数不是正数时不论使用哪种查找策略都返回-1
+        String longInput = UniversalString.repeat("", null, null, null, null, "abcdefgh", 10) + "needle";
+        for (int occurrence : new int[]{0, -1}) {
+            assertEquals(-1, UniversalString.indexOf(false, "hello hello", 0, 11, "hello", occurrence));
+            assertEquals(-1, UniversalString.indexOf(false, "hello hello", 0, 11, "he", occurrence));
+            assertEquals(-1, UniversalString.indexOf(false, longInput, 0, longInput.length(), "needle", occurrence));
+            assertEquals(-1, UniversalString.indexOf(true, longInput, 0, longInput.length(), "ABCDEFGH", occurrence));
+            assertEquals(-1, UniversalString.compile(false, "needle").indexOf(longInput, 0, longInput.length(), occurrence));
+            assertEquals(-1, UniversalString.compile(false, "ab").indexOf(longInput, 0, longInput.length(), occurrence));
+        }
+        assertEquals(80, UniversalString.indexOf(false, longInput, 0, longInput.length(), "needle", 1));
+
+        // 测试指定查找范围
+        assertEquals(-1, UniversalString.indexOf(false, "hello world", 0, 10, "world"));
+        assertEquals(6, UniversalString.indexOf(true, new StringBuilder("hello WORLD"), 1, 11, "world"));
+
+        // 测试字符数组和码点数组
+        assertEquals(3, UniversalString.indexOf(false, "abcabc".toCharArray(), 1, 6, "abc".toCharArray()));
+        assertEquals(1, UniversalString.indexOf(true, new int[]{'x', 'A', 'b'}, 0, 3, new int[]{'a', 'B'}));
     }
 
     @Test
@@ -671,6 +740,12 @@ public class UniversalStringTest {
         // 在限定范围内查找第二次出现（应该找不到）
         result = UniversalString.lastIndexOf(false, input, 0, 10, target, 2);
         assertEquals(UniversalString.NOT_FOUND, result); // 在前10个字符中，"hello"不会出现第二次
+
+        // 测试不指定出现次数的查找
+        assertEquals(12, UniversalString.lastIndexOf(false, input, 0, input.length(), target));
+        assertEquals(2, UniversalString.lastIndexOf(false, "aaaa", 0, 4, "aa"));
+        assertEquals(3, UniversalString.lastIndexOf(false, "abcabc".toCharArray(), 0, 6, "abc".toCharArray()));
+        assertEquals(0, UniversalString.lastIndexOf(true, new int[]{'A', 'b', 'a'}, 0, 2, new int[]{'a', 'B'}));
     }
 
     // ==================== 字符串脱敏测试 ====================
@@ -761,6 +836,10 @@ public class UniversalStringTest {
         // 测试null值
         assertEquals("null字符串替换应该得到空字符串", "", UniversalString.replace(false, null, "Hello", "Hi", -1));
         assertEquals("目标字符串为null时应该得到原字符串", str, UniversalString.replace(false, str, null, "Hi", -1));
+
+        // 测试忽略大小写以及删除目标
+        assertEquals("Hi World Hi", UniversalString.replace(true, "hello World HELLO", "Hello", "Hi", -1));
+        assertEquals(" World ", UniversalString.replace(false, new StringBuilder(str), "Hello", null, -1));
     }
 
     // ==================== 占位符替换测试 ====================
@@ -1353,4 +1432,354 @@ public class UniversalStringTest {
         result = UniversalString.toMethodTag("substring", String.class, new Class[]{int.class, int.class}, null, null);
         assertEquals("String substring(int var0, int var1)", result);
     }
+
+    @Test
+    public void test_appendTo() throws IOException {
+        // 追加到已有内容之后，结果与返回字符串的方法一致
+        StringBuilder sb = new StringBuilder("[");
+        UniversalString.joinTo(sb, ",", "'", "'", "(", ")", "a", null, "b");
+        UniversalString.repeatTo(sb, "-", null, null, null, "!", "ab", 3);
+        UniversalString.formatTo(sb, "x={}, y=\\{}", "{}", 1, 2);
+        UniversalString.replaceTo(true, sb, "aXbxc", "x", "-", -1);
+        UniversalString.cleanTo(false, sb, "abcab", "ab");
+        UniversalString.cleanTo(sb, "a1b2", Character::isDigit);
+        UniversalString.desensitizeTo(sb, "13812345678", "*", 0, 4, 0);
+        UniversalString.briefTo(sb, "abcdefgh", '.', 3, 2, 2);
+        UniversalString.trimTo(false, sb, "--a--", true, true, "-");
+        UniversalString.trimTo(sb, "  a  ", true, false, null);
+        String expected = "[" + UniversalString.join(",", "'", "'", "(", ")", "a", null, "b")
+                + UniversalString.repeat("-", null, null, null, "!", "ab", 3)
+                + UniversalString.format("x={}, y=\\{}", "{}", 1, 2)
+                + UniversalString.replace(true, "aXbxc", "x", "-", -1)
+                + UniversalString.clean(false, "abcab", "ab")
+                + UniversalString.clean("a1b2", Character::isDigit)
+                + UniversalString.desensitize("13812345678", "*", 0, 4, 0)
+                + UniversalString.brief("abcdefgh", '.', 3, 2, 2)
+                + UniversalString.trim(false, "--a--", true, true, "-")
+                + UniversalString.trim("  a  ", true, false, null);
+        assertEquals(expected, sb.toString());
+        assertEquals("[('a','','b')ab-ab-ab!x=1, y={}a-b-ccab1381****678ab...ghaa  ", sb.toString());
+
+        // 通用的Appendable输出
+        StringWriter writer = new StringWriter();
+        assertSame(writer, UniversalString.joinTo(writer, ",", null, null, null, null, Arrays.asList("a", "b")));
+        UniversalString.cleanTo(true, writer, "xAbAB", "ab");
+        assertEquals("a,bx", writer.toString());
+
+        // 空输入不追加任何内容，输出为null时抛出异常
+        assertEquals("", UniversalString.trimTo(sb.delete(0, sb.length()), null, true, true, null).toString());
+        try {
+            UniversalString.briefTo((StringBuilder) null, "abc", '.', 3, 1, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void test_copyOnWrite() {
+        // 没有任何修改时返回原字符串实例
+        String input = "Hello, world";
+        CharSequence[] trims = {"--", "=="};
+        assertSame(input, UniversalString.trim(input, true, true, (IntPredicate) null));
+        assertSame(input, UniversalString.trim(input, true, true, CodePointClass.WHITESPACE));
+        assertSame(input, UniversalString.trim(false, input, true, true, trims));
+        assertSame(input, UniversalString.trim(false, input, true, true));
+        assertSame(input, UniversalString.clean(input, Character::isDigit));
+        assertSame(input, UniversalString.clean(input, CodePointClass.range('0', '9')));
+        assertSame(input, UniversalString.clean(true, input, "xyz", "abc"));
+        assertSame(input, UniversalString.replace(true, input, "xyz", "-", -1));
+        String lowerCase = input.toLowerCase();
+        assertSame(lowerCase, UniversalString.toLowerCase(lowerCase));
+        assertSame(input, UniversalString.capitalize(input, true));
+        assertSame(input, UniversalString.desensitize(input, "*", 0, 0, 0));
+        assertSame(input, ReplacePattern.of(false, Collections.singletonMap("xyz", "-")).replace(input));
+
+        // 发生修改时结果与原来一致
+        assertEquals("Hello, world", UniversalString.trim(" Hello, world\t", true, true, (IntPredicate) null));
+        assertEquals("a", UniversalString.trim(false, "--a==", true, true, trims));
+        assertEquals("--a", UniversalString.trim(false, "--a==", false, true, trims));
+        assertEquals("", UniversalString.trim(false, "----", true, true, "--", ""));
+        assertEquals("Hell, wrld", UniversalString.clean(input, codePoint -> codePoint == 'o'));
+        assertEquals("ab", UniversalString.clean("a1b2", CodePointClass.range('0', '9')));
+        assertEquals("ab", UniversalString.clean("1a2b", Character::isDigit));
+        assertEquals("Hell-, w-rld", UniversalString.replace(true, input, "O", "-", -1));
+        assertEquals("hello, world", UniversalString.capitalize(input, false));
+        assertEquals("Hello**world", UniversalString.desensitize(input, "*", 0, 2, 0));
+    }
+
+    @Test
+    public void test_copyOnWrite_compile() {
+        // 不需要修改时直接返回原字符串，也不会编译新的查找模式
+        String input = "Hello, world";
+        CharSequence[] trims = {"--", "=="};
+        SearchPattern pattern = SearchPattern.of(false, "xyz");
+        String lowerCase = input.toLowerCase();
+        long compiled = UniversalStringTest.compiledCount();
+        assertSame(input, UniversalString.trim(input, true, true, (IntPredicate) null));
+        assertSame(input, UniversalString.trim(input, true, true, CodePointClass.WHITESPACE));
+        assertSame(input, UniversalString.trim(false, input, true, true, trims));
+        assertSame(input, UniversalString.clean(input, Character::isDigit));
+        assertSame(input, UniversalString.clean(input, CodePointClass.range('0', '9')));
+        assertSame(lowerCase, UniversalString.toLowerCase(lowerCase));
+        assertSame(input, UniversalString.capitalize(input, true));
+        assertSame(input, UniversalString.desensitize(input, "*", 0, 0, 0));
+        assertSame(input, pattern.replace(input, "-", -1));
+        assertEquals(compiled, UniversalStringTest.compiledCount());
+    }
+
+    @Test
+    public void test_staticSearch_compile() {
+        // 短目标和短输入使用首字符扫描，静态方法不会编译查找模式
+        String input = "Hello, world";
+        long compiled = UniversalStringTest.compiledCount();
+        assertEquals(7, UniversalString.indexOf(false, input, 0, input.length(), "wor"));
+        assertEquals(7, UniversalString.indexOf(false, input, 0, input.length(), "world"));
+        assertEquals(7, UniversalString.indexOf(true, input, 0, input.length(), "WORLD"));
+        assertEquals(8, UniversalString.indexOf(false, input, 0, input.length(), "o", 2));
+        assertEquals(2, UniversalString.countOccurrences(false, input, "o"));
+        assertSame(input, UniversalString.replace(false, input, "xyz", "-", -1));
+        assertEquals(compiled, UniversalStringTest.compiledCount());
+        // 长输入上的长目标才编译查找模式
+        String longInput = UniversalString.repeat(null, null, null, null, null, input, 10);
+        assertEquals(7, UniversalString.indexOf(false, longInput, 0, longInput.length(), "world"));
+        assertEquals(compiled + 1, UniversalStringTest.compiledCount());
+    }
+
+    @Test
+    public void test_staticCopyOnWrite_compile() {
+        // 静态方法对不需要修改的输入不编译查找模式，直接返回原字符串
+        String input = "Hello, world";
+        StringBuilder output = new StringBuilder();
+        long compiled = UniversalStringTest.compiledCount();
+        assertSame(input, UniversalString.replace(true, input, "xyz", "-", -1));
+        assertSame(input, UniversalString.clean(true, input, "abc", "xyz"));
+        UniversalString.cleanTo(false, output, input, "abc");
+        assertEquals(input, output.toString());
+        output.setLength(0);
+        UniversalString.replaceTo(false, output, input, "abc", "-", -1);
+        assertEquals(input, output.toString());
+        assertEquals(compiled, UniversalStringTest.compiledCount());
+        // 需要修改时才编译查找模式
+        assertEquals("Hell-, w-rld", UniversalString.replace(true, input, "O", "-", -1));
+        assertEquals("Hell, wrld", UniversalString.clean(true, input, "O", "xyz"));
+        assertEquals(compiled + 2, UniversalStringTest.compiledCount());
+    }
+
+    /**
+     * 当前线程可见的已编译查找模式总数
+     *
+     * @return 已编译的单目标和多目标查找模式数量之和
+     */
+    private static long compiledCount() {
+        return SearchPattern.COMPILED_COUNT.sum() + MultiSearchPattern.COMPILED_COUNT.sum();
+    }
+
+    @Test
+    public void test_split_golden() {
+        // 固定的期望结果，由改为在原字符序列上分割之前的实现生成，覆盖空分隔符、前后缀和代理对
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "c"), false, ",", null, null, null, null, null, "a,b,,c,");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "", "c", ""), true, ",", null, null, null, null, null, "a,b,,c,");
+        UniversalStringTest.assertSplit(Arrays.asList("", ""), true, ",", null, null, null, null, null, ",");
+        UniversalStringTest.assertSplit(Collections.emptyList(), false, ",", null, null, null, null, null, ",");
+        UniversalStringTest.assertSplit(Arrays.asList(""), true, ",", null, null, null, null, null, "");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "c"), false, ",", null, null, null, null, Character::isWhitespace, " a , b ,\t, c ");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "", "c"), true, ",", null, null, null, null, Character::isWhitespace, " a , b ,\t, c ");
+        UniversalStringTest.assertSplit(Arrays.asList("a", ";b", "c"), false, ";;", null, null, null, null, null, "a;;;b;;;;c");
+        UniversalStringTest.assertSplit(Arrays.asList("", "", "a"), true, "aa", null, null, null, null, null, "aaaaa");
+        UniversalStringTest.assertSplit(Arrays.asList("abc"), false, "", null, null, null, null, null, "abc");
+        UniversalStringTest.assertSplit(Arrays.asList(""), true, "", null, null, null, null, null, "");
+        UniversalStringTest.assertSplit(Arrays.asList("abc"), false, null, "[", "]", null, null, Character::isWhitespace, " [[abc]] ");
+        UniversalStringTest.assertSplit(Arrays.asList("x"), false, "", "[", "]", "{", "}", null, "{[x]}");
+        UniversalStringTest.assertSplit(Arrays.asList(""), true, "", "[", "]", "{", "}", null, "{[]}");
+        UniversalStringTest.assertSplit(Arrays.asList(""), true, null, null, null, "a", "a", null, "aaaa");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "c", "d"), false, ",", "[", "]", null, null, null, "[a],[[b]],c],[d");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "[c]"), true, ",", "[", "]", null, null, null, "[a],[[b]],[[c]]");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b"), false, ",", "[", "]", "{", "}", Character::isWhitespace, "{ [a] , [b] }");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b"), true, ",", "[", "]", "{{", "}}", null, "{{{{[a],[b]}}}}");
+        UniversalStringTest.assertSplit(Arrays.asList("", "", "", "aa"), true, ",", "a", "a", null, null, null, "a,aa,aaa,aaaa");
+        UniversalStringTest.assertSplit(Arrays.asList("[a", "b]"), false, ",", null, null, "[[", "]]", null, "[[[a,b]]]");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "", "b"), true, ",", null, null, ",", ",", null, ",,a,,b,,");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b", "c"), false, "😀", null, null, null, null, null, "a😀b😀😀c");
+        UniversalStringTest.assertSplit(Arrays.asList("", "a", ""), true, "😀", null, null, null, null, null, "😀a😀");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "😀b😀"), false, ",", "😀", "😀", null, null, null, "😀a😀,😀😀b😀😀");
+        UniversalStringTest.assertSplit(Arrays.asList("a", "b"), false, ",", null, null, "😀", "😀", null, "😀😀a,b😀");
+        UniversalStringTest.assertSplit(Arrays.asList("x😀y", "z"), false, "\uDE00", null, null, null, null, null, "x😀y\uDE00z");
+        UniversalStringTest.assertSplit(Arrays.asList("\u4E2D", "\u6587", ""), true, ",", null, null, null, null, Character::isWhitespace, "\u3000\u4E2D\u3000,\u2028\u6587,");
+    }
+
+    private static void assertSplit(List<String> expected, boolean retainEmpty, String delimiter, String elementPrefix, String elementSuffix,
+                                    String prefix, String suffix, IntPredicate trimCondition, String input) {
+        String message = input + " " + delimiter;
+        assertEquals(message, expected, UniversalString.split(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input));
+        assertEquals(message, expected, UniversalString.split(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, new StringBuilder(input)));
+        List<String> actual = new ArrayList<>();
+        UniversalString.splitIterator(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).forEachRemaining(actual::add);
+        assertEquals(message, expected, actual);
+        assertEquals(message, expected, UniversalString.splitStream(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void test_splitStream() {
+        // 惰性分割与split的结果一致
+        Random random = new Random(23);
+        String[] delimiters = {",", ";;", "aa", "", null};
+        String[] affixes = {null, "", "[", "]", "a", "[["};
+        for (int round = 0; round < 3000; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                sb.append("a,; []x\t".charAt(random.nextInt(8)));
+            }
+            boolean retainEmpty = random.nextBoolean();
+            String delimiter = delimiters[random.nextInt(delimiters.length)];
+            String elementPrefix = affixes[random.nextInt(affixes.length)], elementSuffix = affixes[random.nextInt(affixes.length)];
+            String prefix = affixes[random.nextInt(affixes.length)], suffix = affixes[random.nextInt(affixes.length)];
+            IntPredicate trimCondition = random.nextBoolean() ? Character::isWhitespace : null;
+            CharSequence input = random.nextBoolean() ? sb.toString() : sb;
+            List<String> expected = UniversalString.split(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input);
+            List<String> actual = new ArrayList<>();
+            UniversalString.splitIterator(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).forEachRemaining(actual::add);
+            assertEquals(input + " " + delimiter, expected, actual);
+            assertEquals(expected, UniversalString.splitStream(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input).collect(Collectors.toList()));
+        }
+
+        // 只需要前几个元素时不处理剩余内容
+        Iterator<String> iterator = UniversalString.splitIterator(false, ",", null, null, null, null, Character::isWhitespace, " a, b ,c");
+        assertEquals("a", iterator.next());
+        assertEquals("b", iterator.next());
+        assertEquals(Arrays.asList("a", "b"), UniversalString.splitStream(false, ",", null, null, null, null, Character::isWhitespace, " a, b ,c").limit(2).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void test_splitStream_parallel() {
+        // 大输入的并行分割在分隔符处拆分，结果与顺序分割一致
+        Random random = new Random(23);
+        for (String delimiter : new String[]{",", "aa", "a,a"}) {
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 200000) {
+                sb.append("a,; ".charAt(random.nextInt(4)));
+            }
+            String input = sb.toString();
+            List<String> expected = UniversalString.split(true, delimiter, "[", "]", null, null, Character::isWhitespace, input);
+            Spliterator<String> spliterator = UniversalString.splitStream(true, delimiter, "[", "]", null, null, Character::isWhitespace, input).spliterator();
+            assertNotNull(spliterator.trySplit());
+            assertEquals(expected, UniversalString.splitStream(true, delimiter, "[", "]", null, null, Character::isWhitespace, input)
+                    .parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void test_split_codePoint() {
+        // 分隔符和去除条件都以code point为单位处理
+        assertEquals(Arrays.asList("a", "b", "c"), UniversalString.split(false, "😀", null, null, null, null, null, "a😀b😀c"));
+        assertEquals(Arrays.asList("a", "b"), UniversalString.split(false, ",", null, null, null, null, codePoint -> codePoint == 0x1F600, "😀a😀,😀b"));
+        // 以低代理项开头的分隔符不会匹配代理对的后半部分
+        assertEquals(Arrays.asList("x😀y", "z"), UniversalString.split(false, "\uDE00", null, null, null, null, null, "x😀y\uDE00z"));
+        assertEquals(Arrays.asList("x😀y", "z"), UniversalString.split(false, "\uDE00", null, null, null, null, CodePointClass.WHITESPACE, new StringBuilder(" x😀y\uDE00z ")));
+    }
+
+    @Test
+    public void test_split_codePointClass() {
+        // code point集合走独立的去除路径，结果与等价的判断条件一致
+        CodePointClass trimClass = CodePointClass.WHITESPACE.union(CodePointClass.anyOf("😀\""));
+        IntPredicate trimCondition = trimClass::test;
+        String[] inputs = {"", " , ", "\u3000a\u3000, \"b\" ,😀c😀", "\uD83D, \uDE00a\uD83D", " \u00A0x\u2028 ,\t\uDE00y\uD83D\uDE00"};
+        for (String input : inputs) {
+            assertEquals(input, UniversalString.split(true, ",", "[", "]", null, null, trimCondition, input),
+                    UniversalString.split(true, ",", "[", "]", null, null, trimClass, input));
+            assertEquals(input, UniversalString.split(true, ",", null, null, null, null, trimCondition, input),
+                    UniversalString.splitStream(true, ",", null, null, null, null, trimClass, input).collect(Collectors.toList()));
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), UniversalString.split(false, ",", null, null, null, null, trimClass, "\u3000a\u3000, \"b\" ,😀c😀"));
+    }
+
+    @Test
+    public void test_split_noCopy() {
+        // 直接在原字符序列上分割，不会把整个输入转换为字符串或code point数组
+        String value = UniversalString.repeat(",", null, null, null, null, " abcdefghi ", 100000);
+        CharSequence input = new NoCopySequence(value);
+        List<String> result = UniversalString.split(false, ",", null, null, null, null, Character::isWhitespace, input);
+        assertEquals(100000, result.size());
+        assertEquals("abcdefghi", result.get(99999));
+        assertEquals(result, UniversalString.split(false, ",", null, null, null, null, CodePointClass.WHITESPACE, input));
+    }
+
+    @Test
+    public void test_splitBounds() {
+        int[] bounds = new int[8];
+        assertEquals(3, UniversalString.splitBounds(false, ",", null, null, null, null, Character::isWhitespace, "a, bc ,d", bounds));
+        assertArrayEquals(new int[]{0, 1, 3, 5, 7, 8, 0, 0}, bounds);
+        // 容量不足时只写入能容纳的元素，返回元素的总数量
+        int[] small = new int[3];
+        assertEquals(4, UniversalString.splitBounds(true, ",", null, null, null, null, null, "x,,y,z", small));
+        assertArrayEquals(new int[]{0, 1, 0}, small);
+        // 空输入保留空元素时输出一个空范围
+        assertEquals(1, UniversalString.splitBounds(true, ",", null, null, null, null, null, null, bounds));
+        assertEquals(0, UniversalString.splitBounds(false, ",", null, null, null, null, null, "", bounds));
+        try {
+            UniversalString.splitBounds(true, ",", null, null, null, null, null, "a", null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // 与split的结果一致
+        Random random = new Random(25);
+        String[] delimiters = {",", ";;", "aa", "", null};
+        String[] affixes = {null, "[", "]", "a", "[["};
+        int[] buffer = new int[64];
+        for (int round = 0; round < 3000; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                sb.append("a,; []x\t".charAt(random.nextInt(8)));
+            }
+            String input = sb.toString();
+            boolean retainEmpty = random.nextBoolean();
+            String delimiter = delimiters[random.nextInt(delimiters.length)];
+            String elementPrefix = affixes[random.nextInt(affixes.length)], elementSuffix = affixes[random.nextInt(affixes.length)];
+            String prefix = affixes[random.nextInt(affixes.length)], suffix = affixes[random.nextInt(affixes.length)];
+            IntPredicate trimCondition = random.nextBoolean() ? Character::isWhitespace : null;
+            List<String> expected = UniversalString.split(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input);
+            int count = UniversalString.splitBounds(retainEmpty, delimiter, elementPrefix, elementSuffix, prefix, suffix, trimCondition, input, buffer);
+            List<String> actual = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                actual.add(input.substring(buffer[2 * i], buffer[2 * i + 1]));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * 只允许按字符和子序列读取的字符序列，转换整个序列时测试失败
+     */
+    private static final class NoCopySequence implements CharSequence {
+        private final String value;
+
+        NoCopySequence(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.substring(start, end);
+        }
+
+        @Override
+        public IntStream codePoints() {
+            throw new AssertionError("codePoints");
+        }
+
+        @Override
+        public String toString() {
+            throw new AssertionError("toString");
+        }
+    }
 }